@@ -0,0 +1,57 @@
+package benchmark;
+
+import logic.BulletTrajectory;
+import logic.Point;
+import logic.Simulator;
+import logic.StressTest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static logic.Simulator.HEIGHT;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulletBenchmark {
+    private static final int DIRECTIONS = 16;
+
+    // bullet speed and size of the pistol/assault rifle and of the rocket launcher
+    @Param({"50:0.2", "20:0.4"})
+    public String bullet;
+
+    @Param({"0", "1", "2", "3", "4"})
+    public int scenario;
+
+    Simulator simulator;
+    Point muzzle;
+    Point[] speeds;
+    double size;
+
+    @Setup
+    public void setUp() {
+        StressTest.Scenario s = StressTest.scenarios().get(scenario);
+        simulator = new Simulator(s.map, 60, 100);
+        muzzle = s.start.position.add(new Point(0, HEIGHT / 2));
+        String[] parts = bullet.split(":");
+        double speed = Double.parseDouble(parts[0]);
+        size = Double.parseDouble(parts[1]);
+        speeds = new Point[DIRECTIONS];
+        for (int i = 0; i < DIRECTIONS; i++) {
+            speeds[i] = Point.dir(2 * Math.PI * i / DIRECTIONS).mult(speed);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DIRECTIONS)
+    public void simulateBullet(Blackhole bh) {
+        for (Point speed : speeds) {
+            BulletTrajectory trajectory = simulator.simulateBullet(muzzle, speed, size, 100500);
+            bh.consume(trajectory);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package benchmark;
+
+import logic.StressTest;
+import model.*;
+
+import util.ProtocolInputStream;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static model.Tile.*;
+
+// pass -jvmArgsAppend -Dbenchmark.game=<file> to replay a Game saved with Game.writeTo
+class Games {
+    static final int MY_PLAYER_ID = 1;
+    static final int ENEMY_PLAYER_ID = 2;
+
+    static Game recorded() throws IOException {
+        String path = System.getProperty("benchmark.game");
+        if (path == null) {
+            return synthetic();
+        }
+        try (InputStream in = new ProtocolInputStream(new FileInputStream(path))) {
+            return Game.readFrom(in);
+        }
+    }
+
+    static Unit firstUnit(Game game, int playerId) {
+        for (Unit unit : game.getUnits()) {
+            if (unit.getPlayerId() == playerId) {
+                return unit;
+            }
+        }
+        throw new IllegalArgumentException("no unit for player " + playerId);
+    }
+
+    // one unit per side on a StressTest map, with bullets in flight and loot on the ground
+    static Game synthetic() {
+        Tile[][] map = copy(StressTest.scenarios().get(1).map);
+        Properties properties = properties();
+        WeaponParams rifle = properties.getWeaponParams().get(WeaponType.ASSAULT_RIFLE);
+        WeaponParams pistol = properties.getWeaponParams().get(WeaponType.PISTOL);
+
+        Vec2Double myPos = standingPosition(map, false);
+        Vec2Double enemyPos = standingPosition(map, true);
+        Unit me = unit(MY_PLAYER_ID, 1, myPos, new Weapon(WeaponType.PISTOL, pistol, 8, false, 0.05, null, 0.0, null));
+        Unit enemy = unit(ENEMY_PLAYER_ID, 2, enemyPos, new Weapon(WeaponType.ASSAULT_RIFLE, rifle, 20, true, 0.3, 0.1, Math.PI, 10));
+
+        Bullet[] bullets = new Bullet[5];
+        for (int i = 0; i < bullets.length; i++) {
+            double angle = Math.atan2(myPos.getY() - enemyPos.getY(), myPos.getX() - enemyPos.getX()) + (i - 2) * 0.1;
+            double speed = rifle.getBullet().getSpeed();
+            bullets[i] = new Bullet(
+                    WeaponType.ASSAULT_RIFLE,
+                    enemy.getId(),
+                    ENEMY_PLAYER_ID,
+                    new Vec2Double(enemyPos.getX() + Math.cos(angle) * (1 + i), enemyPos.getY() + 0.9 + Math.sin(angle) * (1 + i)),
+                    new Vec2Double(Math.cos(angle) * speed, Math.sin(angle) * speed),
+                    rifle.getBullet().getDamage(),
+                    rifle.getBullet().getSize(),
+                    null
+            );
+        }
+
+        Vec2Double center = new Vec2Double((myPos.getX() + enemyPos.getX()) / 2, myPos.getY());
+        LootBox[] lootBoxes = {
+                new LootBox(center, properties.getLootBoxSize(), new Item.HealthPack(properties.getHealthPackHealth())),
+                new LootBox(new Vec2Double(center.getX() + 2, center.getY()), properties.getLootBoxSize(), new Item.Weapon(WeaponType.ROCKET_LAUNCHER))
+        };
+
+        return new Game(
+                0,
+                properties,
+                new model.Level(map),
+                new Player[]{new Player(MY_PLAYER_ID, 0), new Player(ENEMY_PLAYER_ID, 0)},
+                new Unit[]{me, enemy},
+                bullets,
+                new Mine[0],
+                lootBoxes
+        );
+    }
+
+    private static Unit unit(int playerId, int id, Vec2Double position, Weapon weapon) {
+        return new Unit(
+                playerId,
+                id,
+                100,
+                position,
+                new Vec2Double(0.9, 1.8),
+                new JumpState(true, 10, 0.55, true),
+                false,
+                true,
+                true,
+                false,
+                0,
+                weapon
+        );
+    }
+
+    private static Vec2Double standingPosition(Tile[][] map, boolean fromRight) {
+        for (int i = 1; i < map.length - 1; i++) {
+            int x = fromRight ? map.length - 1 - i : i;
+            for (int y = 1; y < map[x].length - 2; y++) {
+                boolean solidBelow = map[x][y - 1] == WALL || map[x][y - 1] == PLATFORM;
+                if (solidBelow && map[x][y] == EMPTY && map[x][y + 1] == EMPTY) {
+                    return new Vec2Double(x + 0.5, y);
+                }
+            }
+        }
+        throw new IllegalStateException("no place to stand");
+    }
+
+    private static Tile[][] copy(Tile[][] map) {
+        Tile[][] r = new Tile[map.length][];
+        for (int i = 0; i < map.length; i++) {
+            r[i] = map[i].clone();
+        }
+        return r;
+    }
+
+    private static Properties properties() {
+        Map<WeaponType, WeaponParams> weapons = new EnumMap<>(WeaponType.class);
+        weapons.put(WeaponType.PISTOL, new WeaponParams(8, 0.4, 1, 0.05, 0.5, 0.5, 1, new BulletParams(50, 0.2, 20), null));
+        weapons.put(WeaponType.ASSAULT_RIFLE, new WeaponParams(20, 0.1, 1, 0.1, 0.5, 0.2, 1.9, new BulletParams(50, 0.2, 5), null));
+        weapons.put(WeaponType.ROCKET_LAUNCHER, new WeaponParams(1, 1, 1, 0.1, 0.5, 1, 1, new BulletParams(20, 0.4, 30), new ExplosionParams(3, 50)));
+        return new Properties(
+                3600,
+                1,
+                60,
+                100,
+                new Vec2Double(0.5, 0.5),
+                new Vec2Double(0.9, 1.8),
+                10,
+                10,
+                0.55,
+                10,
+                0.525,
+                20,
+                100,
+                50,
+                weapons,
+                new Vec2Double(0.5, 0.5),
+                new ExplosionParams(3, 50),
+                1,
+                0.5,
+                1,
+                1000
+        );
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import model.Game;
+import org.openjdk.jmh.annotations.*;
+import util.ProtocolInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolBenchmark {
+
+    InputStream buffered;
+    InputStream protocol;
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Games.recorded().writeTo(out);
+        byte[] message = out.toByteArray();
+        buffered = new BufferedInputStream(new RepeatingInputStream(message));
+        protocol = new ProtocolInputStream(new RepeatingInputStream(message));
+    }
+
+    @Benchmark
+    public Game readBuffered() throws IOException {
+        return Game.readFrom(buffered);
+    }
+
+    @Benchmark
+    public Game readProtocol() throws IOException {
+        return Game.readFrom(protocol);
+    }
+
+    // the same message over and over, like a connection delivering one game state per tick
+    static class RepeatingInputStream extends InputStream {
+        final byte[] message;
+        int pos;
+
+        RepeatingInputStream(byte[] message) {
+            this.message = message;
+        }
+
+        @Override
+        public int read() {
+            int r = message[pos] & 0xFF;
+            pos = (pos + 1) % message.length;
+            return r;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            int n = Math.min(len, message.length - pos);
+            System.arraycopy(message, pos, b, off, n);
+            pos = (pos + n) % message.length;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import logic.Plan;
+import logic.Simulator;
+import logic.StressTest;
+import logic.TrajectoryBuffer;
+import logic.UnitState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulatorBenchmark {
+
+    @Param({"6000x1", "60x100"})
+    public String settings;
+
+    @Param({"0", "1", "2", "3", "4"})
+    public int scenario;
+
+    Simulator simulator;
+    UnitState start;
+    Plan plan;
+    TrajectoryBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        StressTest.Scenario s = StressTest.scenarios().get(scenario);
+        String[] parts = settings.split("x");
+        simulator = new Simulator(s.map, Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        start = s.start;
+        plan = s.plan;
+        buffer = new TrajectoryBuffer(plan.size());
+    }
+
+    @Benchmark
+    public List<UnitState> simulate() {
+        return simulator.simulate(start, plan);
+    }
+
+    @Benchmark
+    public TrajectoryBuffer simulateIntoBuffer() {
+        return simulator.simulate(start, plan, buffer);
+    }
+
+    @Benchmark
+    public TrajectoryBuffer simulateEvents() {
+        return simulator.simulateEvents(start, plan, buffer);
+    }
+}
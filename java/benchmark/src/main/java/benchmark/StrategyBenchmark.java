@@ -0,0 +1,110 @@
+package benchmark;
+
+import logic.DistanceFields;
+import logic.Point;
+import model.Bullet;
+import model.Game;
+import model.Tile;
+import model.Unit;
+import model.UnitAction;
+import model.Vec2Double;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+// MyStrategy lives in the default package, so it is reached through method handles
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyBenchmark {
+    private static final MethodHandle NEW_STRATEGY;
+    private static final MethodHandle GET_ACTION;
+    private static final MethodHandle DFS;
+    private static final MethodHandle MAP;
+    // ticks the bullets fly on before they start over, like bullets fired anew
+    private static final int BULLET_CYCLE = 8;
+
+    static {
+        try {
+            Class<?> strategyClass = Class.forName("MyStrategy");
+            Class<?> debugClass = Class.forName("Debug");
+            Constructor<?> constructor = strategyClass.getDeclaredConstructor(boolean.class, boolean.class, int.class);
+            Method getAction = strategyClass.getDeclaredMethod("getAction", Unit.class, Game.class, debugClass);
+            Method dfs = strategyClass.getDeclaredMethod("dfs", Point.class);
+            Field map = strategyClass.getDeclaredField("map");
+            constructor.setAccessible(true);
+            getAction.setAccessible(true);
+            dfs.setAccessible(true);
+            map.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NEW_STRATEGY = lookup.unreflectConstructor(constructor);
+            GET_ACTION = lookup.unreflect(getAction);
+            DFS = lookup.unreflect(dfs);
+            MAP = lookup.unreflectGetter(map);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    Object strategy;
+    Game game;
+    Unit me;
+    Point target;
+    // the level as the strategy fixed it on the zero tick
+    Tile[][] map;
+    Vec2Double[] bulletStarts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        game = Games.recorded();
+        me = Games.firstUnit(game, Games.MY_PLAYER_ID);
+        target = new Point(Games.firstUnit(game, Games.ENEMY_PLAYER_ID));
+        strategy = NEW_STRATEGY.invoke(false, false, parallelism);
+        // like a real game, the zero tick has no bullets in flight
+        Bullet[] bullets = game.getBullets();
+        game.setBullets(new Bullet[0]);
+        GET_ACTION.invoke(strategy, me, game, null);
+        game.setBullets(bullets);
+        map = (Tile[][]) MAP.invoke(strategy);
+        bulletStarts = new Vec2Double[bullets.length];
+        for (int i = 0; i < bullets.length; i++) {
+            bulletStarts[i] = bullets[i].getPosition();
+        }
+    }
+
+    @Benchmark
+    public Object dfs() throws Throwable {
+        return DFS.invoke(strategy, target);
+    }
+
+    @Benchmark
+    public int[] bfsUncached() {
+        return new DistanceFields(map, 1).compute((int) target.x, (int) target.y);
+    }
+
+    @Benchmark
+    public Object getAction() throws Throwable {
+        // the strategy only plans once per tick, so every call is the next tick, with the bullets flown
+        // on as far as the bullet tracker expects them
+        int tick = game.getCurrentTick() + 1;
+        game.setCurrentTick(tick);
+        double passed = tick % BULLET_CYCLE / game.getProperties().getTicksPerSecond();
+        for (int i = 0; i < bulletStarts.length; i++) {
+            Vec2Double velocity = game.getBullets()[i].getVelocity();
+            game.getBullets()[i].setPosition(new Vec2Double(
+                    bulletStarts[i].getX() + velocity.getX() * passed, bulletStarts[i].getY() + velocity.getY() * passed));
+        }
+        return (UnitAction) GET_ACTION.invoke(strategy, me, game, null);
+    }
+}
@@ -1,19 +1,49 @@
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
+// collects the messages drawn during a tick; Runner writes them together with the actions,
+// so drawing costs no socket writes. Anything beyond maxPerTick messages in a tick is dropped
 public class Debug {
-    private OutputStream stream;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(1 << 16);
+    private final int maxPerTick;
+    private int drawnThisTick;
+    private long drawn, dropped;
 
-    public Debug(OutputStream stream) {
-        this.stream = stream;
+    public Debug() {
+        this(Integer.getInteger("debug.maxPerTick", 1000));
+    }
+
+    public Debug(int maxPerTick) {
+        this.maxPerTick = maxPerTick;
     }
 
     public void draw(model.CustomData customData) {
+        if (drawnThisTick >= maxPerTick) {
+            dropped++;
+            return;
+        }
         try {
-            new model.PlayerMessageGame.CustomDataMessage(customData).writeTo(stream);
-            stream.flush();
+            new model.PlayerMessageGame.CustomDataMessage(customData).writeTo(pending);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        drawnThisTick++;
+        drawn++;
+    }
+
+    // writes the tick's messages without flushing and starts a new tick
+    public void writeTo(OutputStream stream) throws IOException {
+        pending.writeTo(stream);
+        pending.reset();
+        drawnThisTick = 0;
+    }
+
+    public long drawn() {
+        return drawn;
+    }
+
+    public long dropped() {
+        return dropped;
     }
-}
\ No newline at end of file
+}
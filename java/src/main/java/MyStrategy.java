@@ -1,7 +1,13 @@
 import logic.*;
 import model.*;
 
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -23,34 +29,77 @@ public class MyStrategy {
     public static final double EXPLOSION_SIZE = 6;
     public static final int HEALTHPACK_THRESHOLD = 75;
     public static final double STABLE_POINT_DELTA = 0.25;
+    public static final double MIN_ALLOWED_DIST = 0.5;
+    public static final double TIMER_EPS = 1e-6;
+    public static final double AIM_EPS = 1e-3;
 
     final boolean fake;
     final boolean local;
+    final int parallelism;
+    final ForkJoinPool pool;
+    final boolean pathDistances = Boolean.getBoolean("strategy.pathDistances");
+    // simulate the enemies' dodging plans run by run instead of tick by tick
+    final boolean eventDriven = Boolean.getBoolean("strategy.eventDriven");
+    // 0 for searching all plans of the fixed length, otherwise the time movement planning may take each tick
+    final long tickBudget = TimeUnit.MILLISECONDS.toNanos(Long.getLong("strategy.tickBudgetMs", 0));
+    // 0 for searching the fixed set of plans, otherwise the ticks an evolutionary search may simulate per unit
+    final int evolutionBudget = Integer.getInteger("strategy.evolutionBudget", 0);
 
     Game game;
     MyDebug debug;
     Tile[][] map;
+    CollisionMap collisionMap;
+    SightTable sightTable;
 
     Simulator simulator;
+    TransitionCache transitionCache;
+    PlanOptimizer planOptimizer;
+    BulletTracker bulletTracker;
+    DistanceFields distanceFields;
+    volatile ReachabilityGraph reachability;
     List<Point> stablePoints;
+    StablePointIndex stablePointIndex;
+    byte[] visibility;
+    double visibilityX, visibilityY;
+    WeaponType visibilityWeapon;
     List<Unit> myTeam;
     List<Unit> enemies;
     List<BulletTrajectory> bulletTrajectories;
+    BulletSnapshot bullets;
+    DangerMap dangerMap;
+    // the danger map of the next speculative copy, which hands this one's map on in turn
+    DangerMap spareDangerMap;
     int previousTick = -1;
+    long deadline;
+    // set when a speculation is dropped, so that its thinking stops at the next plan it scores
+    private volatile boolean cancelled;
 
     // things different for different units
     Map<Integer, Plan> lastMovementPlan = new HashMap<>();
     Map<Integer, UnitAction> plannedMoves = new HashMap<>();
+    Map<Integer, List<UnitState>> plannedStates = new HashMap<>();
+    Map<Integer, List<Plan>> lastElites = new HashMap<>();
     Map<Integer, Double> initialX = new HashMap<>();
+    // the units as predictNextGame saw them, to tell the move they made since
+    Map<Integer, UnitState> lastSeenUnits = new HashMap<>();
 
     public MyStrategy() {
-        fake = false;
-        local = false;
+        this(false, false, Integer.getInteger("strategy.parallelism", 1));
     }
 
     public MyStrategy(boolean fake, boolean local) {
+        this(fake, local, 1);
+    }
+
+    public MyStrategy(boolean fake, boolean local, int parallelism) {
+        this(fake, local, parallelism, parallelism > 1 ? new ForkJoinPool(parallelism) : null);
+    }
+
+    private MyStrategy(boolean fake, boolean local, int parallelism, ForkJoinPool pool) {
         this.fake = fake;
         this.local = local;
+        this.parallelism = parallelism;
+        this.pool = pool;
     }
 
     public UnitAction getAction(Unit me, Game game, Debug debug0) {
@@ -73,15 +122,191 @@ public class MyStrategy {
     }
 
     private void think() {
+        long tickStart = System.nanoTime();
         Unit leader = getLeader();
+        deadline = tickStart + tickBudget / myTeam.size();
         Intention leaderIntention = getIntention(leader, null);
         plannedMoves.put(leader.getId(), leaderIntention.unitAction);
+        plannedStates.put(leader.getId(), leaderIntention.states);
 
         if (myTeam.size() > 1) {
             Unit secondary = getSecondary(leader);
+            deadline = tickStart + tickBudget;
             Intention secondaryIntention = getIntention(secondary, leaderIntention);
             plannedMoves.put(secondary.getId(), secondaryIntention.unitAction);
+            plannedStates.put(secondary.getId(), secondaryIntention.states);
+        }
+    }
+
+    // the game of the next tick if our units follow their plans, the enemies repeat the move they made
+    // last tick, the bullets fly on and the timers run down, for thinking about it ahead of time. Call
+    // after the actions for game were chosen
+    Game predictNextGame(Game game) {
+        Game next = copy(game);
+        next.setCurrentTick(game.getCurrentTick() + 1);
+        Map<Integer, UnitState> seen = new HashMap<>();
+        for (Unit unit : next.getUnits()) {
+            UnitState current = new UnitState(unit);
+            seen.put(unit.getId(), current);
+            List<UnitState> states = plannedStates.get(unit.getId());
+            UnitState state;
+            if (states != null) {
+                state = states.isEmpty() ? null : states.get(0);
+            } else {
+                MoveAction move = lastMove(lastSeenUnits.get(unit.getId()), current);
+                state = move == null ? null : simulator.simulate(current, plan(1, move)).get(0);
+            }
+            if (state != null) {
+                unit.setPosition(new Vec2Double(state.position.x, state.position.y));
+                unit.getJumpState().setMaxTime(state.remainingJumpTime);
+                unit.getJumpState().setCanJump(state.canJump);
+                unit.getJumpState().setCanCancel(state.canCancel);
+            }
+            Weapon weapon = unit.getWeapon();
+            if (weapon != null && weapon.getFireTimer() != null) {
+                double timer = weapon.getFireTimer() - simulator.tickDuration;
+                weapon.setFireTimer(timer > 0 ? timer : null);
+            }
+        }
+        lastSeenUnits = seen;
+        for (Mine mine : next.getMines()) {
+            if (mine.getTimer() != null) {
+                mine.setTimer(mine.getTimer() - simulator.tickDuration);
+            }
+        }
+        List<Bullet> flying = new ArrayList<>();
+        for (int i = 0; i < next.getBullets().length; i++) {
+            BulletTrajectory trajectory = bulletTrajectories.get(i);
+            if (trajectory.size() == 0) {
+                continue;
+            }
+            Bullet bullet = next.getBullets()[i];
+            bullet.setPosition(new Vec2Double(trajectory.x(0), trajectory.y(0)));
+            flying.add(bullet);
+        }
+        next.setBullets(flying.toArray(new Bullet[0]));
+        return next;
+    }
+
+    // a move that takes the unit from before to after in a tick, null if none of the tried ones does
+    private MoveAction lastMove(UnitState before, UnitState after) {
+        if (before == null) {
+            return null;
+        }
+        double walked = (after.position.x - before.position.x) / simulator.tickDuration;
+        for (double speed : new double[]{walked, -SPEED, 0, SPEED}) {
+            for (int kind = 0; kind < 3; kind++) {
+                MoveAction move = MoveAction.of(max(-SPEED, min(SPEED, speed)), kind == 1, kind == 2);
+                if (simulator.simulate(before, plan(1, move)).get(0).equals(after)) {
+                    return move;
+                }
+            }
+        }
+        return null;
+    }
+
+    // whether thinking about predicted gives the same as about actual, comparing only what thinking
+    // reads: the units, the bullets, the mines, the loot and the score. Timers are compared up to the
+    // error of running them down by microticks, aims up to AIM_EPS
+    boolean predictionHolds(Game predicted, Game actual) {
+        if (predicted.getCurrentTick() != actual.getCurrentTick() ||
+                predicted.getUnits().length != actual.getUnits().length ||
+                predicted.getBullets().length != actual.getBullets().length ||
+                predicted.getMines().length != actual.getMines().length ||
+                predicted.getLootBoxes().length != actual.getLootBoxes().length) {
+            return false;
+        }
+        for (int i = 0; i < actual.getUnits().length; i++) {
+            Unit unit = actual.getUnits()[i];
+            Unit expected = predicted.getUnits()[i];
+            if (unit.getId() != expected.getId() || unit.getHealth() != expected.getHealth() ||
+                    unit.getMines() != expected.getMines() ||
+                    !new UnitState(unit).equals(new UnitState(expected)) ||
+                    !sameWeapon(unit.getWeapon(), expected.getWeapon())) {
+                return false;
+            }
+        }
+        for (int i = 0; i < actual.getBullets().length; i++) {
+            Bullet bullet = actual.getBullets()[i];
+            Bullet expected = predicted.getBullets()[i];
+            if (bullet.getUnitId() != expected.getUnitId() || bullet.getWeaponType() != expected.getWeaponType() ||
+                    !new Point(bullet.getPosition()).equals(new Point(expected.getPosition()))) {
+                return false;
+            }
+        }
+        for (int i = 0; i < actual.getMines().length; i++) {
+            Mine mine = actual.getMines()[i];
+            Mine expected = predicted.getMines()[i];
+            if (mine.getState() != expected.getState() || !sameTimer(mine.getTimer(), expected.getTimer()) ||
+                    !new Point(mine.getPosition()).equals(new Point(expected.getPosition()))) {
+                return false;
+            }
+        }
+        for (int i = 0; i < actual.getLootBoxes().length; i++) {
+            if (!new Point(actual.getLootBoxes()[i].getPosition()).equals(new Point(predicted.getLootBoxes()[i].getPosition()))) {
+                return false;
+            }
+        }
+        for (int i = 0; i < actual.getPlayers().length; i++) {
+            if (actual.getPlayers()[i].getScore() != predicted.getPlayers()[i].getScore()) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    private static boolean sameWeapon(Weapon a, Weapon b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getTyp() == b.getTyp() &&
+                sameTimer(a.getFireTimer(), b.getFireTimer()) &&
+                abs(a.getSpread() - b.getSpread()) < AIM_EPS &&
+                (a.getLastAngle() == null ? b.getLastAngle() == null
+                        : b.getLastAngle() != null && abs(a.getLastAngle() - b.getLastAngle()) < AIM_EPS);
+    }
+
+    private static boolean sameTimer(Double a, Double b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return abs(a - b) < TIMER_EPS;
+    }
+
+    // a strategy in the same state as this one, to think about a predicted tick without changing this
+    // one. It shares what is fixed for the game and thread-safe, and copies what thinking changes
+    MyStrategy speculative() {
+        MyStrategy r = new MyStrategy(fake, local, parallelism, pool);
+        r.map = map;
+        r.collisionMap = collisionMap;
+        r.sightTable = sightTable;
+        r.simulator = simulator;
+        r.transitionCache = transitionCache;
+        r.planOptimizer = planOptimizer;
+        r.bulletTracker = bulletTracker.copy();
+        r.distanceFields = distanceFields;
+        r.reachability = reachability;
+        r.stablePoints = stablePoints;
+        r.stablePointIndex = stablePointIndex;
+        r.myTeam = myTeam;
+        if (dangerMap != null && spareDangerMap == null) {
+            spareDangerMap = newDangerMap();
+        }
+        r.dangerMap = spareDangerMap;
+        r.spareDangerMap = dangerMap;
+        r.previousTick = previousTick;
+        r.lastMovementPlan = new HashMap<>(lastMovementPlan);
+        r.plannedMoves = new HashMap<>(plannedMoves);
+        r.plannedStates = new HashMap<>(plannedStates);
+        r.lastElites = new HashMap<>(lastElites);
+        r.initialX = initialX;
+        r.lastSeenUnits = lastSeenUnits;
+        return r;
+    }
+
+    // stops a speculative copy thinking with CancellationException
+    void cancel() {
+        cancelled = true;
     }
 
     private Intention getIntention(Unit me, Intention leaderIntention) {
@@ -150,19 +375,41 @@ public class MyStrategy {
     }
 
     private void initZeroTick() {
-        map = game.getLevel().getTiles();
+        map = copy(game.getLevel().getTiles());
         fixBorders(map);
+        collisionMap = new CollisionMap(map);
+        distanceFields = new DistanceFields(map, 64);
+        buildDistanceTable(map, System.getProperty("strategy.distanceCache"));
+        int cacheCapacity = Integer.getInteger("strategy.transitionCache", 0);
+        transitionCache = cacheCapacity > 0 ? new TransitionCache(cacheCapacity) : null;
         simulator = new Simulator(
-                map,
+                collisionMap,
                 (int) game.getProperties().getTicksPerSecond(),
-                game.getProperties().getUpdatesPerTick()
+                game.getProperties().getUpdatesPerTick(),
+                transitionCache
         );
-        stablePoints = findStablePoints();
+        sightTable = new SightTable(simulator, collisionMap, 8);
+        bulletTracker = new BulletTracker(simulator, 100500);
+        if (evolutionBudget > 0) {
+            planOptimizer = new PlanOptimizer(simulator, 24, 6);
+        }
+        stablePoints = StablePointIndex.findStablePoints(collisionMap, simulator, STABLE_POINT_DELTA);
+        stablePointIndex = new StablePointIndex(stablePoints, map.length, map[0].length);
+        if (Boolean.getBoolean("strategy.reachability")) {
+            buildReachabilityGraph();
+        }
+        if (Boolean.getBoolean("strategy.dangerMap")) {
+            dangerMap = newDangerMap();
+        }
         for (Unit u : myTeam) {
             initialX.put(u.getId(), u.getPosition().getX());
         }
     }
 
+    private DangerMap newDangerMap() {
+        return new DangerMap(map.length, map[0].length, 4, getMaxPlanLength(), MIN_ALLOWED_DIST);
+    }
+
     private void initCommon(Unit me) {
         myTeam = Stream.of(game.getUnits())
                 .filter(u -> u.getPlayerId() == me.getPlayerId())
@@ -170,9 +417,49 @@ public class MyStrategy {
         enemies = Stream.of(game.getUnits())
                 .filter(u -> u.getPlayerId() != me.getPlayerId())
                 .collect(Collectors.toList());
-        bulletTrajectories = Stream.of(game.getBullets())
-                .map(b -> simulator.simulateBullet(b, 100500))
-                .collect(Collectors.toList());
+        // there are no bullets before the zero tick init
+        bulletTrajectories = bulletTracker == null
+                ? Collections.emptyList()
+                : bulletTracker.update(game.getBullets(), game.getCurrentTick());
+        bullets = new BulletSnapshot(game.getBullets().length, getMaxPlanLength());
+        for (int i = 0; i < game.getBullets().length; i++) {
+            Bullet bullet = game.getBullets()[i];
+            bullets.add(bulletTrajectories.get(i), bullet.getUnitId(), bullet.getWeaponType() == ROCKET_LAUNCHER,
+                    bullet.getSize(), bullet.getDamage(), bullet.getExplosionParams());
+        }
+        // only thinking reads the map, once a tick
+        if (dangerMap != null && previousTick != game.getCurrentTick()) {
+            fillDangerMap();
+        }
+    }
+
+    // the map keeps the owners of the bullets, so it scores the plans of both units
+    private void fillDangerMap() {
+        dangerMap.clear();
+        for (int i = 0; i < game.getBullets().length; i++) {
+            Bullet bullet = game.getBullets()[i];
+            boolean hurtsOwner = bullet.getWeaponType() == ROCKET_LAUNCHER;
+            ExplosionParams explosion = bullet.getExplosionParams();
+            if (explosion == null) {
+                dangerMap.addBullet(bulletTrajectories.get(i), bullet.getUnitId(), hurtsOwner, bullet.getDamage(), 0, 0);
+            } else {
+                dangerMap.addBullet(bulletTrajectories.get(i), bullet.getUnitId(), hurtsOwner,
+                        bullet.getDamage() + explosion.getDamage(), explosion.getRadius() * 2, explosion.getDamage());
+            }
+        }
+        for (Mine mine : game.getMines()) {
+            if (mine.getState() != MineState.TRIGGERED) {
+                continue;
+            }
+            double mineSize = mine.getSize().getX();
+            dangerMap.addExplosion(
+                    (int) (mine.getTimer() / simulator.tickDuration),
+                    mine.getPosition().getX(),
+                    mine.getPosition().getY() + mineSize / 2,
+                    mine.getExplosionParams().getRadius() * 2,
+                    mine.getExplosionParams().getDamage()
+            );
+        }
     }
 
     private UnitAction noop() {
@@ -200,7 +487,7 @@ public class MyStrategy {
         }
 
         actualStates.add(state);
-        if (game.getCurrentTick() == testPlan.moves.size()) {
+        if (game.getCurrentTick() == testPlan.size()) {
             TestCasePrinter.print(map, testPlan, actualStates, game);
         }
         MoveAction curAction = testPlan.get(game.getCurrentTick());
@@ -233,7 +520,7 @@ public class MyStrategy {
                 jump = false;
                 jumpDown = true;
             }
-            plan.add(n, new MoveAction(speed, jump, jumpDown));
+            plan.add(n, MoveAction.of(speed, jump, jumpDown));
         }
         return plan;
     }
@@ -241,28 +528,134 @@ public class MyStrategy {
     private PlanAndStates move(Unit me, Point targetPos, Intention leaderIntention) {
         UnitState start = new UnitState(me);
         debug.drawLine(new Point(me), targetPos, WHITE);
-        Set<Plan> plans = genMovementPlans(me, targetPos, getPlanLength());
-        double minEval = Double.POSITIVE_INFINITY;
-        Plan bestPlan = null;
-        List<UnitState> bestStates = null;
-        int[][] dfsDist = dfs(targetPos);
-        for (Plan plan : plans) {
-            List<UnitState> states = simulator.simulate(start, plan);
-            double eval = evaluate(me, targetPos, leaderIntention, dfsDist, states);
-            if (eval < minEval) {
-                minEval = eval;
-                bestStates = states;
-                bestPlan = plan;
+        ReachabilityGraph graph = reachability;
+        int[] dfsDist = graph != null ? graph.field(targetPos) : dfs(targetPos);
+        ToDoubleFunction<TrajectoryBuffer> evaluator = states -> {
+            if (cancelled) {
+                throw new CancellationException();
             }
+            return evaluate(me, targetPos, leaderIntention, dfsDist, states);
+        };
+        BestPlan best;
+        if (tickBudget > 0) {
+            best = searchBestPlanAnytime(me, targetPos, start, evaluator);
+        } else if (planOptimizer != null) {
+            best = evolvePlan(me, targetPos, start, evaluator);
+        } else {
+            int steps = getPlanLength();
+            List<Plan> plans = new ArrayList<>(genMovementPlans(me, targetPos, steps));
+            best = searchBestPlan(plans, 0, start, steps, evaluator);
         }
+        List<UnitState> bestStates = best.states.toStates();
         showStates(bestStates, GREEN);
-        lastMovementPlan.put(me.getId(), bestPlan);
-        return new PlanAndStates(bestPlan, bestStates);
+        lastMovementPlan.put(me.getId(), best.plan);
+        return new PlanAndStates(best.plan, bestStates);
+    }
+
+    // horizons growing from half the plan length to twice of it, searched until the deadline. The shortest
+    // one is always searched, in batches from the most promising plans, and stops at the deadline with the
+    // best plan so far; a longer one starts only if it is likely to finish, and replaces the result only
+    // if it does, since evaluations over different horizons don't compare
+    private BestPlan searchBestPlanAnytime(Unit me, Point targetPos, UnitState start, ToDoubleFunction<TrajectoryBuffer> evaluator) {
+        BestPlan result = null;
+        long previousTime = 0;
+        for (int steps = getPlanLength() / 2; steps <= getMaxPlanLength(); steps *= 2) {
+            long from = System.nanoTime();
+            // the next horizon takes about twice as long as the previous one
+            if (result != null && from + 2 * previousTime > deadline) {
+                break;
+            }
+            BestPlan best = new BestPlan(steps);
+            boolean complete = true;
+            int offset = 0;
+            for (List<Plan> batch : planBatches(me, targetPos, steps)) {
+                if ((result != null || offset > 0) && System.nanoTime() > deadline) {
+                    complete = false;
+                    break;
+                }
+                best.merge(searchBestPlan(batch, offset, start, steps, evaluator));
+                offset += batch.size();
+            }
+            if (result != null && !complete) {
+                break;
+            }
+            result = best;
+            previousTime = System.nanoTime() - from;
+            if (!complete) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // seeded with the promising plans and the follow-ups of the best plans of the last tick. The random
+    // generator depends only on the tick and the unit, so that a tick thought about again goes the same way
+    private BestPlan evolvePlan(Unit me, Point targetPos, UnitState start, ToDoubleFunction<TrajectoryBuffer> evaluator) {
+        int steps = getPlanLength();
+        List<Plan> seeds = new ArrayList<>(promisingPlans(me, targetPos, steps));
+        for (Plan elite : lastElites.getOrDefault(me.getId(), Collections.emptyList())) {
+            seeds.add(elite.followUpPlan(elite.get(elite.size() - 1), steps));
+        }
+        Random random = new Random(game.getCurrentTick() * 31L + me.getId());
+        PlanOptimizer.Result result = planOptimizer.optimize(seeds, start, steps, evolutionBudget, random, evaluator);
+        lastElites.put(me.getId(), result.elites);
+        return result.best;
+    }
+
+    // the movement plans in small batches: first the follow-ups of the last plan and going straight to
+    // the target, then the ones starting towards the target, then the rest
+    private List<List<Plan>> planBatches(Unit me, Point targetPos, int steps) {
+        Set<Plan> promising = promisingPlans(me, targetPos, steps);
+        List<Plan> towards = new ArrayList<>();
+        List<Plan> others = new ArrayList<>();
+        double direction = signum(targetPos.x - me.getPosition().getX());
+        for (Plan plan : genMovementPlans(me, targetPos, steps)) {
+            if (promising.contains(plan)) {
+                continue;
+            }
+            (signum(plan.get(0).speed) == direction ? towards : others).add(plan);
+        }
+        List<Plan> ordered = new ArrayList<>(promising);
+        ordered.addAll(towards);
+        ordered.addAll(others);
+        List<List<Plan>> batches = new ArrayList<>();
+        int batchSize = 32;
+        for (int from = 0; from < ordered.size(); from += batchSize) {
+            batches.add(ordered.subList(from, min(from + batchSize, ordered.size())));
+        }
+        return batches;
+    }
+
+    private BestPlan searchBestPlan(List<Plan> plans, int offset, UnitState start, int steps, ToDoubleFunction<TrajectoryBuffer> evaluator) {
+        if (pool == null) {
+            return searchSlice(plans, offset, start, steps, evaluator);
+        }
+        // contiguous slices keep neighbouring plans, which tend to share prefixes, in the same tree
+        int sliceSize = (plans.size() + parallelism - 1) / parallelism;
+        List<ForkJoinTask<BestPlan>> tasks = new ArrayList<>();
+        for (int from = 0; from < plans.size(); from += sliceSize) {
+            List<Plan> slice = plans.subList(from, min(from + sliceSize, plans.size()));
+            int sliceOffset = offset + from;
+            tasks.add(pool.submit(() -> searchSlice(slice, sliceOffset, start, steps, evaluator)));
+        }
+        BestPlan best = new BestPlan(steps);
+        for (ForkJoinTask<BestPlan> task : tasks) {
+            best.merge(task.join());
+        }
+        return best;
+    }
+
+    private BestPlan searchSlice(List<Plan> plans, int offset, UnitState start, int steps, ToDoubleFunction<TrajectoryBuffer> evaluator) {
+        BestPlan best = new BestPlan(steps);
+        new PlanTree(plans).search(simulator, start, new TrajectoryBuffer(steps), (plan, index, states) ->
+                best.offer(plan, offset + index, evaluator.applyAsDouble(states), states)
+        );
+        return best;
     }
 
     private void showBulletTrajectories(List<BulletTrajectory> trajectories) {
         for (BulletTrajectory trajectory : trajectories) {
-            for (Point p : trajectory.positions) {
+            for (Point p : trajectory.positions()) {
                 debug.drawSquare(p, trajectory.bulletSize, RED);
             }
             if (trajectory.collisionPos != null) {
@@ -271,7 +664,7 @@ public class MyStrategy {
         }
     }
 
-    private double evaluate(Unit me, Point targetPos, Intention leaderIntention, int[][] dfsDist, List<UnitState> states) {
+    private double evaluate(Unit me, Point targetPos, Intention leaderIntention, int[] dfsDist, TrajectoryBuffer states) {
         double eval = 0;
         eval += 0.01 * evalDist(states, dfsDist, targetPos);
         eval += dangerFactor(me, states);
@@ -287,24 +680,22 @@ public class MyStrategy {
         }
     }
 
-    private double evalDist(List<UnitState> states, int[][] dfsDist, Point target) {
+    private double evalDist(TrajectoryBuffer states, int[] dfsDist, Point target) {
         double r = Double.POSITIVE_INFINITY;
         for (int i = 0; i < states.size(); i++) {
-            UnitState state = states.get(i);
-            double dist = evalDist(dfsDist, target, state) + i * simulator.tickSpeed * 0.1;
+            double dist = evalDist(dfsDist, target, states.x(i), states.y(i)) + i * simulator.tickSpeed * 0.1;
             r = min(r, dist);
         }
         return r;
     }
 
-    private double evalDist(int[][] dfsDist, Point target, UnitState state) {
+    private double evalDist(int[] dfsDist, Point target, double x, double y) {
         double minDist = Double.POSITIVE_INFINITY;
-        double x = state.position.x;
-        double y = state.position.y;
         int cx = (int) x;
         int cy = (int) y;
 
-        if (dfsDist[cx][cy] == 0) {
+        int height = distanceFields.height;
+        if (dfsDist[cx * height + cy] == 0) {
             minDist = min(minDist, max(abs(x - target.x), abs(y - target.y)));
         } else {
             for (Dir dir : dirs) {
@@ -322,25 +713,27 @@ public class MyStrategy {
                 } else {
                     throw new RuntimeException();
                 }
-                double dist = dfsDist[toX][toY] + distToNeighbour + 1;
+                double dist = dfsDist[toX * height + toY] + distToNeighbour + 1;
                 minDist = min(minDist, dist);
             }
         }
         return minDist;
     }
 
-    private boolean collidesWithLeaderOrEnemies(List<UnitState> states, Intention leaderIntention) {
+    private boolean collidesWithLeaderOrEnemies(TrajectoryBuffer states, Intention leaderIntention) {
         if (leaderIntention != null) {
-            for (int i = 0; i < states.size(); i++) {
-                if (unitsIntersect(states.get(i).position, leaderIntention.states.get(i).position)) {
+            // the leader may have planned for a different horizon
+            for (int i = 0; i < min(states.size(), leaderIntention.states.size()); i++) {
+                if (unitsIntersect(states.x(i), states.y(i), leaderIntention.states.get(i).position)) {
                     return true;
                 }
             }
         }
         for (Unit enemy : enemies) {
-            Point p = new Point(enemy);
-            for (UnitState state : states) {
-                if (unitsIntersect(state.position, p)) {
+            double enemyX = enemy.getPosition().getX();
+            double enemyY = enemy.getPosition().getY();
+            for (int i = 0; i < states.size(); i++) {
+                if (unitsIntersect(states.x(i), states.y(i), enemyX, enemyY)) {
                     return true;
                 }
             }
@@ -348,19 +741,31 @@ public class MyStrategy {
         return false;
     }
 
-    private boolean unitsIntersect(Point a, Point b) { // todo get rid of excessive object creation
-        return intersects(new Segment(a.x - WIDTH / 2, a.x + WIDTH / 2), new Segment(b.x - WIDTH / 2, b.x + WIDTH / 2)) &&
-                intersects(new Segment(a.y, a.y + HEIGHT), new Segment(b.y, b.y + HEIGHT));
+    private boolean unitsIntersect(Point a, Point b) {
+        return unitsIntersect(a.x, a.y, b);
+    }
+
+    private boolean unitsIntersect(double ax, double ay, Point b) {
+        return unitsIntersect(ax, ay, b.x, b.y);
+    }
+
+    private static boolean unitsIntersect(double ax, double ay, double bx, double by) {
+        return intersects(ax - WIDTH / 2, ax + WIDTH / 2, bx - WIDTH / 2, bx + WIDTH / 2) &&
+                intersects(ay, ay + HEIGHT, by, by + HEIGHT);
+    }
+
+    private static boolean intersects(double aLeft, double aRight, double bLeft, double bRight) {
+        return !(aRight < bLeft || aLeft > bRight);
     }
 
-    private void print(int[][] dfsDist) {
+    private void print(int[] dfsDist) {
         for (int y = map[0].length - 1; y >= 0; y--) {
             for (int x = 0; x < map.length; x++) {
                 String s;
                 if (map[x][y] == WALL) {
                     s = "#";
                 } else {
-                    s = String.valueOf(dfsDist[x][y]);
+                    s = String.valueOf(dfsDist[x * map[0].length + y]);
                 }
                 System.out.print(s + "\t");
             }
@@ -368,61 +773,12 @@ public class MyStrategy {
         }
     }
 
-    int[][] dfs(Point start) {
-        int[][] dist = new int[map.length][map[0].length];
-        final int inf = (int) 1e9;
-        for (int i = 0; i < map.length; i++) {
-            for (int j = 0; j < map[i].length; j++) {
-                dist[i][j] = inf;
-            }
-        }
-        Queue<Cell> q = new ArrayDeque<>();
-        Cell startCell = new Cell(start);
-        q.add(startCell);
-        dist[startCell.x][startCell.y] = 0;
-        while (!q.isEmpty()) {
-            Cell cur = q.remove();
-            for (int dx = -1; dx <= 1; dx++) {
-                for (int dy = -1; dy <= 1; dy++) {
-                    if (abs(dx) + abs(dy) != 1) {
-                        continue;
-                    }
-                    int toX = cur.x + dx;
-                    int toY = cur.y + dy;
-                    if (!inside(toX, toY)) {
-                        continue;
-                    }
-                    if (map[toX][toY] == WALL) {
-                        continue;
-                    }
-                    if (map[toX][toY + 1] == WALL && map[toX][toY - 1] == WALL) {
-                        continue;
-                    }
-                    if (dist[toX][toY] != inf) {
-                        continue;
-                    }
-                    dist[toX][toY] = dist[cur.x][cur.y] + 1;
-                    q.add(new Cell(toX, toY));
-                }
-            }
-        }
-        return dist;
-    }
-
-    private boolean inside(int x, int y) {
-        return x >= 0 && x < map.length && y >= 0 && y < map[0].length;
+    int[] dfs(Point start) {
+        return distanceFields.get(start);
     }
 
     private Set<Plan> genMovementPlans(Unit me, Point targetPos, int steps) {
-        Set<Plan> plans = new LinkedHashSet<>();
-        if (myTeam.contains(me)) {
-            addFollowUpPlans(plans, lastMovementPlan.get(me.getId()), steps);
-        }
-
-        double speedToTarget = simulator.clampSpeed(simulator.fromTickSpeed(targetPos.x - me.getPosition().getX()));
-        plans.add(plan(1, speedToTarget, false, false).add(steps - 1, 0, false, false));
-
-        plans.add(plan(1, 0, false, false).add(steps - 1, 0, true, false));
+        Set<Plan> plans = promisingPlans(me, targetPos, steps);
 
         for (int cnt = 0; cnt <= steps; cnt += 6) {
             for (double speed : new double[]{-SPEED, 0, SPEED}) {
@@ -432,8 +788,8 @@ public class MyStrategy {
                             continue;
                         }
                         plans.add(
-                                plan(cnt, new MoveAction(speed, jump, jumpDown))
-                                        .add(steps - cnt, new MoveAction(0, jump, jumpDown))
+                                plan(cnt, MoveAction.of(speed, jump, jumpDown))
+                                        .add(steps - cnt, MoveAction.of(0, jump, jumpDown))
                         );
                         plans.add(
                                 plan(cnt, speed, false, false)
@@ -458,20 +814,38 @@ public class MyStrategy {
         }
         for (int standCnt = 0; standCnt <= steps; standCnt += 2) {
             plans.add(
-                    plan(standCnt, new MoveAction(0, false, false))
-                            .add(steps - standCnt, new MoveAction(0, true, false))
+                    plan(standCnt, MoveAction.of(0, false, false))
+                            .add(steps - standCnt, MoveAction.of(0, true, false))
             );
         }
         for (int upCnt = 0; upCnt <= steps; upCnt += 2) {
             plans.add(
-                    plan(upCnt, new MoveAction(0, true, false))
-                            .add(steps - upCnt, new MoveAction(0, false, true))
+                    plan(upCnt, MoveAction.of(0, true, false))
+                            .add(steps - upCnt, MoveAction.of(0, false, true))
             );
         }
         verifyLength(plans, steps);
         return plans;
     }
 
+    private Set<Plan> promisingPlans(Unit me, Point targetPos, int steps) {
+        Set<Plan> plans = new LinkedHashSet<>();
+        if (myTeam.contains(me)) {
+            addFollowUpPlans(plans, lastMovementPlan.get(me.getId()), steps);
+        }
+
+        double speedToTarget = simulator.clampSpeed(simulator.fromTickSpeed(targetPos.x - me.getPosition().getX()));
+        plans.add(plan(1, speedToTarget, false, false).add(steps - 1, 0, false, false));
+
+        plans.add(plan(1, 0, false, false).add(steps - 1, 0, true, false));
+        return plans;
+    }
+
+    // the longest horizon plans can be evaluated over
+    private int getMaxPlanLength() {
+        return tickBudget > 0 ? 2 * getPlanLength() : getPlanLength();
+    }
+
     private int getPlanLength() {
         if (myTeam.size() == 2) {
             return 32;
@@ -481,7 +855,7 @@ public class MyStrategy {
     }
 
     private void verifyLength(Set<Plan> plans, int steps) {
-        if (!plans.stream().allMatch(p -> p.moves.size() == steps)) {
+        if (!plans.stream().allMatch(p -> p.size() == steps)) {
             throw new RuntimeException("wrong plan length");
         }
     }
@@ -578,34 +952,72 @@ public class MyStrategy {
         return getSafeShootingPosition(me, enemy, leaderIntention);
     }
 
+    // the farthest stable point the enemy can be shot from, preferring our side of the enemy. Cells
+    // are visited from the best possible score down, so lines of sight are traced only for points
+    // that would still win; ties go to the earliest stable point
     private Point getSafeShootingPosition(Unit me, Unit enemy, Intention leaderIntention) {
-        double maxDist = Double.NEGATIVE_INFINITY;
-        Point bestPoint = null;
         double myX = me.getPosition().getX();
         double enemyX = enemy.getPosition().getX();
-        for (Point p : stablePoints) {
-            if (leaderIntention != null && unitsIntersect(leaderIntention.targetPoint, p)) {
-                continue;
+        double enemyY = enemy.getPosition().getY();
+        boolean anySide = abs(myX - enemyX) < 1;
+        StablePointIndex index = stablePointIndex;
+        int buckets = index.buckets();
+        double[] bounds = new double[buckets];
+        Integer[] order = new Integer[buckets];
+        for (int b = 0; b < buckets; b++) {
+            bounds[b] = index.maxDist(b, enemyX, enemyY, HEIGHT / 2);
+            boolean wrongSide = myX < enemyX ? index.minX(b) >= enemyX : index.maxX(b) < enemyX;
+            if (!anySide && wrongSide) {
+                bounds[b] -= 1000;
+            }
+            order[b] = b;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(bounds[b], bounds[a]));
+
+        double maxDist = Double.NEGATIVE_INFINITY;
+        int best = -1;
+        for (int b : order) {
+            if (bounds[b] < maxDist) {
+                break;
             }
-            Point muzzlePoint = new Point(p.x, p.y + HEIGHT / 2);
-            if (inLineOfSight(muzzlePoint, me.getWeapon(), enemy)) {
-                double dist = dist(muzzlePoint, enemy);
-                boolean sameSide = abs(myX - enemyX) < 1 || (myX < enemyX) == (muzzlePoint.x < enemyX);
+            for (int i = index.bucketStart(b); i < index.bucketEnd(b); i++) {
+                int pointIndex = index.point(i);
+                Point p = stablePoints.get(pointIndex);
+                double muzzleY = p.y + HEIGHT / 2;
+                double dist = dist(p.x, muzzleY, enemyX, enemyY);
+                boolean sameSide = anySide || (myX < enemyX) == (p.x < enemyX);
                 if (!sameSide) {
                     dist -= 1000;
                 }
-                if (dist > maxDist) {
+                if (!(dist > maxDist || dist == maxDist && pointIndex < best)) {
+                    continue;
+                }
+                if (leaderIntention != null && unitsIntersect(leaderIntention.targetPoint, p)) {
+                    continue;
+                }
+                if (visibleFrom(pointIndex, new Point(p.x, muzzleY), me.getWeapon(), enemy)) {
                     maxDist = dist;
-                    bestPoint = p;
+                    best = pointIndex;
                 }
-                /*double eval = evaluateStablePoint(p);
-                if (eval > maxEval) {
-                    maxEval = eval;
-                    bestPoint = p;
-                }*/
             }
         }
-        return bestPoint;
+        return best < 0 ? null : stablePoints.get(best);
+    }
+
+    // lines of sight from stable points are remembered while the enemy stays in place
+    private boolean visibleFrom(int pointIndex, Point muzzlePoint, Weapon weapon, Unit enemy) {
+        double x = enemy.getPosition().getX();
+        double y = enemy.getPosition().getY();
+        if (visibility == null || x != visibilityX || y != visibilityY || weapon.getTyp() != visibilityWeapon) {
+            visibility = new byte[stablePoints.size()];
+            visibilityX = x;
+            visibilityY = y;
+            visibilityWeapon = weapon.getTyp();
+        }
+        if (visibility[pointIndex] == 0) {
+            visibility[pointIndex] = (byte) (inLineOfSight(muzzlePoint, weapon, enemy) ? 1 : 2);
+        }
+        return visibility[pointIndex] == 1;
     }
 
     static double timeToShoot(Unit unit) {
@@ -629,81 +1041,24 @@ public class MyStrategy {
                     if (jump && jumpDown) {
                         continue;
                     }
-                    plans.add(lastPlan.followUpPlan(new MoveAction(speed, jump, jumpDown), steps));
+                    plans.add(lastPlan.followUpPlan(MoveAction.of(speed, jump, jumpDown), steps));
                 }
             }
         }
     }
 
-    private double dangerFactor(Unit me, List<UnitState> states) {
-        double minAllowedDist = 0.5;
-        double danger = 0;
-        for (int bulletIndex = 0; bulletIndex < game.getBullets().length; bulletIndex++) {
-            Bullet bullet = game.getBullets()[bulletIndex];
-            if (bullet.getUnitId() == me.getId() && bullet.getWeaponType() != ROCKET_LAUNCHER) {
-                continue;
-            }
-            BulletTrajectory trajectory = bulletTrajectories.get(bulletIndex);
-            danger += bulletDangerFactor(states, trajectory, new MyBulletParams(bullet), minAllowedDist);
-        }
-        danger += minesDangerFactor(states, minAllowedDist);
-        return danger;
-    }
-
-    static class MyBulletParams {
-        final double size;
-        final int damage;
-        final ExplosionParams explosion;
-
-        MyBulletParams(double size, int damage, ExplosionParams explosion) {
-            this.size = size;
-            this.damage = damage;
-            this.explosion = explosion;
-        }
-
-        MyBulletParams(BulletParams bullet, ExplosionParams explosion) {
-            this(bullet.getSize(), bullet.getDamage(), explosion);
+    private double dangerFactor(Unit me, TrajectoryBuffer states) {
+        if (dangerMap != null && dangerMap.complete()) {
+            return dangerMap.danger(states, me.getId());
         }
-
-        MyBulletParams(Bullet bullet) {
-            this(bullet.getSize(), bullet.getDamage(), bullet.getExplosionParams());
-        }
-    }
-
-    private double bulletDangerFactor(List<UnitState> states, BulletTrajectory trajectory, MyBulletParams bullet, double minAllowedDist) {
-        double minDist = Double.POSITIVE_INFINITY;
+        double minAllowedDist = MIN_ALLOWED_DIST;
         double danger = 0;
-
-        ExplosionParams explosion = bullet.explosion;
-        for (int i = 0; i < min(trajectory.size(), states.size()); i++) {
-            Point bulletPos = trajectory.get(i);
-            Point myPos = states.get(i).position;
-            double dist = distToBullet(myPos, bulletPos, bullet.size);
-            minDist = min(minDist, dist);
-            if (dist == 0) {
-                break;
-            }
-        }
-
-        if (minDist > 0 &&
-                trajectory.collisionPos != null &&
-                explosion != null &&
-                trajectory.size() < states.size()
-        ) {
-            Point myPos = states.get(trajectory.size()).position;
-            double distToExplosion = distToBullet(myPos, trajectory.collisionPos, explosion.getRadius() * 2);
-            danger += getDanger(minAllowedDist, distToExplosion, explosion.getDamage());
-        }
-
-        int collisionDamage = bullet.damage;
-        if (explosion != null) {
-            collisionDamage += explosion.getDamage();
-        }
-        danger += getDanger(minAllowedDist, minDist, collisionDamage);
+        danger += bullets.danger(states, me.getId(), minAllowedDist);
+        danger += minesDangerFactor(states, minAllowedDist);
         return danger;
     }
 
-    private double minesDangerFactor(List<UnitState> states, double minAllowedDist) {
+    private double minesDangerFactor(TrajectoryBuffer states, double minAllowedDist) {
         double danger = 0;
         for (Mine mine : game.getMines()) {
             if (mine.getState() != MineState.TRIGGERED) {
@@ -717,56 +1072,13 @@ public class MyStrategy {
             }
             double mineSize = mine.getSize().getX();
             Point mineCenter = new Point(mine.getPosition()).add(new Point(0, mineSize / 2));
-            UnitState state = states.get(explosionTick);
             double explosionSize = mine.getExplosionParams().getRadius() * 2;
-            double dist = distToBullet(state.position, mineCenter, explosionSize);
-            danger += getDanger(minAllowedDist, dist, damage);
+            double dist = distToBullet(states.x(explosionTick), states.y(explosionTick), mineCenter.x, mineCenter.y, explosionSize);
+            danger += danger(minAllowedDist, dist, damage);
         }
         return danger;
     }
 
-    private double getDanger(double minAllowedDist, double dist, int damage) {
-        if (dist == 0) {
-            return damage;
-        }
-        if (dist < minAllowedDist) {
-            return (1 - dist / minAllowedDist) * 2;
-        }
-        return 0;
-    }
-
-    private static double distToBullet(Point myPos, Point bulletPos, double size) {
-        double myX = myPos.x;
-        double myY = myPos.y;
-        return max(segmentDist(
-                new Segment(myX - WIDTH / 2, myX + WIDTH / 2),
-                new Segment(bulletPos.x - size / 2, bulletPos.x + size / 2)
-        ), segmentDist(
-                new Segment(myY, myY + HEIGHT),
-                new Segment(bulletPos.y - size / 2, bulletPos.y + size / 2)
-        ));
-    }
-
-    private static double segmentDist(Segment a, Segment b) {
-        if (intersects(a, b)) {
-            return 0;
-        }
-        return max(a.left - b.right, b.left - a.right);
-    }
-
-    private static boolean intersects(Segment a, Segment b) {
-        return !(a.right < b.left || a.left > b.right);
-    }
-
-    static class Segment {
-        final double left, right;
-
-        Segment(double left, double right) {
-            this.left = left;
-            this.right = right;
-        }
-    }
-
     private Point healthPackTargetPoint(Unit me, LootBox healthPack, Unit enemy) {
         Point hpPos = new Point(healthPack.getPosition());
         if (me.getHealth() < HEALTHPACK_THRESHOLD) {
@@ -820,25 +1132,31 @@ public class MyStrategy {
                 getTrajectory(me, angle, steps)
         );
         //showBulletTrajectories(trajectories);
+        BulletSnapshot shots = new BulletSnapshot(trajectories.size(), steps);
+        for (BulletTrajectory trajectory : trajectories) {
+            shots.add(trajectory, me.getId(), true, bullet.getSize(), bullet.getDamage(), weapon.getParams().getExplosion());
+        }
 
         for (Unit enemy : enemies) {
             Set<Plan> plans = genMovementPlans(enemy, new Point(enemy), steps);
-            List<PlanAndStates> ps = plans.stream()
-                    .map(p -> new PlanAndStates(p, simulator.simulate(new UnitState(enemy), p)))
+            UnitState start = new UnitState(enemy);
+            List<TrajectoryBuffer> ps = plans.stream()
+                    .map(p -> eventDriven
+                            ? simulator.simulateEvents(start, p, new TrajectoryBuffer(steps))
+                            : simulator.simulate(start, p, new TrajectoryBuffer(steps)))
                     .collect(Collectors.toList());
-            if (!canDodge(weapon, bullet, trajectories, ps)) {
+            if (!canDodge(shots, ps)) {
                 return true;
             }
         }
         return false;
     }
 
-    private boolean canDodge(Weapon weapon, BulletParams bullet, List<BulletTrajectory> trajectories, List<PlanAndStates> ps) {
-        for (BulletTrajectory trajectory : trajectories) {
+    private boolean canDodge(BulletSnapshot shots, List<TrajectoryBuffer> ps) {
+        for (int shot = 0; shot < shots.size(); shot++) {
             boolean dodge = false;
-            for (PlanAndStates planAndStates : ps) {
-                List<UnitState> states = planAndStates.states;
-                double danger = bulletDangerFactor(states, trajectory, new MyBulletParams(bullet, weapon.getParams().getExplosion()), 0);
+            for (TrajectoryBuffer states : ps) {
+                double danger = shots.danger(shot, states, 0);
                 if (danger == 0) {
                     dodge = true;
                     break;
@@ -880,9 +1198,9 @@ public class MyStrategy {
                 Point.dir(shootAngle).mult(speed),
                 bullet.getSize(),
                 10
-        ).positions;
+        ).positions();
         for (Point bulletPosition : bulletPositions) {
-            if (distToBullet(new Point(teammate), bulletPosition, bullet.getSize()) < 0.1) {
+            if (distToBullet(teammate.getPosition().getX(), teammate.getPosition().getY(), bulletPosition.x, bulletPosition.y, bullet.getSize()) < 0.1) {
                 return true;
             }
         }
@@ -914,8 +1232,8 @@ public class MyStrategy {
         Point delta = Point.dir(angle).mult(speedPerTick);
         while (true) {
             bulletPos = bulletPos.add(delta);
-            if (bulletCollidesWithWall(map, bulletPos, bullet.getSize())) {
-                if (distToBullet(new Point(me), bulletPos, EXPLOSION_SIZE) <= 0.1) {
+            if (bulletCollidesWithWall(collisionMap, bulletPos, bullet.getSize())) {
+                if (distToBullet(me.getPosition().getX(), me.getPosition().getY(), bulletPos.x, bulletPos.y, EXPLOSION_SIZE) <= 0.1) {
                     return true;
                 } else {
                     break;
@@ -935,8 +1253,7 @@ public class MyStrategy {
         double speed = bullet.getSpeed();
         Point speedV = to.minus(from).norm().mult(speed);
         int ticksToReach = (int) ceil(dist(from, to) / (speed * simulator.tickDuration));
-        BulletTrajectory trajectory = simulator.simulateBullet(from, speedV, bullet.getSize(), ticksToReach);
-        return trajectory.size() >= ticksToReach;
+        return sightTable.flies(from, speedV, bullet.getSize(), ticksToReach);
     }
 
     private Tile tileAtPoint(Point p) {
@@ -1002,9 +1319,9 @@ public class MyStrategy {
         return healthPacks.stream()
                 .min(
                         Comparator
-                                .comparing((LootBox h) -> dist(h.getPosition(), me) > dist(h.getPosition(), enemy))
+                                .comparing((LootBox h) -> lootDist(h.getPosition(), me.getPosition()) > lootDist(h.getPosition(), enemy.getPosition()))
                                 .thenComparing(h -> abs(h.getPosition().getX() - centerX))
-                                .thenComparing(h -> dist(h.getPosition(), me.getPosition()))
+                                .thenComparing(h -> lootDist(h.getPosition(), me.getPosition()))
                 )
                 .orElse(null);
     }
@@ -1014,7 +1331,7 @@ public class MyStrategy {
                 .filter(w -> betterWeapon(me, w))
                 .min(
                         Comparator.comparing((LootBox w) -> dangerousLootBox(me, w))
-                                .thenComparing(w -> dist(w.getPosition(), me.getPosition()))
+                                .thenComparing(w -> lootDist(w.getPosition(), me.getPosition()))
                 )
                 .orElse(null);
     }
@@ -1036,8 +1353,23 @@ public class MyStrategy {
         if (me.getWeapon() != null) {
             return false;
         }
-        double dist = dist(me, w);
-        return enemies.stream().anyMatch(e -> dist(e, me) < dist && dist(e, w) < dist);
+        double dist = lootDist(me.getPosition(), w.getPosition());
+        return enemies.stream().anyMatch(e ->
+                lootDist(e.getPosition(), me.getPosition()) < dist && lootDist(e.getPosition(), w.getPosition()) < dist
+        );
+    }
+
+    // path length in cells with -Dstrategy.pathDistances, straight line distance otherwise
+    private double lootDist(Vec2Double from, Vec2Double to) {
+        if (!pathDistances) {
+            return dist(from, to);
+        }
+        DistanceTable table = distanceFields.table();
+        if (table != null) {
+            return table.get((int) to.getX(), (int) to.getY(), (int) from.getX(), (int) from.getY());
+        }
+        int[] field = distanceFields.get((int) to.getX(), (int) to.getY());
+        return field[(int) from.getX() * distanceFields.height + (int) from.getY()];
     }
 
     private WeaponType getType(LootBox lb) {
@@ -1049,33 +1381,67 @@ public class MyStrategy {
                 .min(Comparator.comparing(e -> dist(e, me))).get();
     }
 
-    private List<Point> findStablePoints() {
-        List<Point> r = new ArrayList<>();
-        double delta = STABLE_POINT_DELTA;
-        for (double x = 1 + WIDTH / 2; x < map.length - 1 - WIDTH / 2; x = roundIfClose(x + delta)) {
-            for (double y = 1; y < map[0].length - 1 - HEIGHT; y = roundIfClose(y + delta)) {
-                if (isStable(x, y)) {
-                    r.add(new Point(x, y));
-                }
-            }
+    // path distances don't change during the game, so all of them are computed in the background;
+    // until then the same distances come from BFS
+    private void buildDistanceTable(Tile[][] level, String cacheDir) {
+        Thread thread = new Thread(() -> distanceFields.setTable(
+                cacheDir == null ? DistanceTable.build(level) : loadDistanceTable(level, new File(cacheDir))
+        ), "distance-table");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // a cache that can't be read or written only costs building the table again
+    private static DistanceTable loadDistanceTable(Tile[][] level, File cacheDir) {
+        try {
+            return DistanceTable.load(level, cacheDir);
+        } catch (UncheckedIOException e) {
+            System.err.println("Can't use the distance cache in " + cacheDir + ": " + e.getCause());
+            return DistanceTable.build(level);
         }
-        return r;
     }
 
-    private double roundIfClose(double v) {
-        if (abs(v - round(v)) < 1e-9) {
-            return round(v);
+    // simulating moves from every stable point takes around half a second, so the graph is built in the
+    // background and plans are evaluated with BFS distances until it is ready
+    private void buildReachabilityGraph() {
+        Simulator graphSimulator = new Simulator(
+                collisionMap,
+                (int) game.getProperties().getTicksPerSecond(),
+                game.getProperties().getUpdatesPerTick()
+        );
+        List<Point> points = stablePoints;
+        Thread thread = new Thread(() -> reachability = new ReachabilityGraph(
+                points, STABLE_POINT_DELTA, graphSimulator, distanceFields, 64
+        ), "reachability-graph");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static Game copy(Game game) {
+        try {
+            return Game.readFrom(new ByteArrayInputStream(bytes(game)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return v;
     }
 
-    private boolean isStable(double x, double y) {
-        if (unitCollidesWithWall(map, x, y)) {
-            return false;
+    private static byte[] bytes(Game game) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            game.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // the decoded level is reused between ticks, so borders are fixed on a copy
+    private static Tile[][] copy(Tile[][] tiles) {
+        Tile[][] r = new Tile[tiles.length][];
+        for (int x = 0; x < tiles.length; x++) {
+            r[x] = tiles[x].clone();
         }
-        UnitState start = new UnitState(new Point(x, y), 0, false, false);
-        List<UnitState> states = simulator.simulate(start, plan(1, 0, false, false));
-        return states.stream().allMatch(s -> s.position.equals(start.position));
+        return r;
     }
 
     private static void fixBorders(Tile[][] map) {
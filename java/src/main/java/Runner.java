@@ -1,18 +1,27 @@
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
 import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
 import java.util.Map;
 import java.util.HashMap;
 import java.io.BufferedOutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import util.ProtocolInputStream;
 import util.StreamUtil;
 
 public class Runner {
     private final InputStream inputStream;
     private final OutputStream outputStream;
-    private final MyStrategy myStrategy;
+    private MyStrategy myStrategy;
+    // think about the predicted next tick while the server simulates the current one
+    private final boolean pipelined = Boolean.getBoolean("strategy.pipelined");
+    private int speculationHits, speculationMisses;
 
     Runner(String host, int port, String token) throws IOException {
         this(host, port, token, new MyStrategy());
@@ -20,30 +29,109 @@ public class Runner {
 
     Runner(String host, int port, String token, MyStrategy myStrategy) throws IOException {
         this.myStrategy = myStrategy;
-        Socket socket = new Socket(host, port);
-        socket.setTcpNoDelay(true);
-        inputStream = new BufferedInputStream(socket.getInputStream());
-        outputStream = new BufferedOutputStream(socket.getOutputStream());
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+        inputStream = new ProtocolInputStream(channel);
+        outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
         StreamUtil.writeString(outputStream, token);
         outputStream.flush();
     }
 
     void run() throws IOException {
-        Debug debug = new Debug(outputStream);
+        Debug debug = new Debug();
+        // a speculation that went wrong is stopped and waited for after our actions are sent, so that
+        // at most one runs and the next one may take its danger map
+        ExecutorService worker = pipelined ? Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "speculation");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        Speculation speculation = null;
         while (true) {
             model.ServerMessageGame message = model.ServerMessageGame.readFrom(inputStream);
             model.PlayerView playerView = message.getPlayerView();
             if (playerView == null) {
                 break;
             }
-            Map<Integer, model.UnitAction> actions = new HashMap<>();
-            for (model.Unit unit : playerView.getGame().getUnits()) {
-                if (unit.getPlayerId() == playerView.getMyId()) {
-                    actions.put(unit.getId(), myStrategy.getAction(unit, playerView.getGame(), debug));
-                }
+            Map<Integer, model.UnitAction> actions = speculation == null ? null : speculation.result(playerView.getGame());
+            if (actions == null) {
+                actions = actions(myStrategy, playerView, debug);
             }
+            debug.writeTo(outputStream);
             new model.PlayerMessageGame.ActionMessage(new model.Versioned(actions)).writeTo(outputStream);
             outputStream.flush();
+            if (speculation != null) {
+                speculation.await();
+            }
+            if (pipelined) {
+                speculation = new Speculation(worker, playerView);
+            }
+        }
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+    }
+
+    public int speculationHits() {
+        return speculationHits;
+    }
+
+    public int speculationMisses() {
+        return speculationMisses;
+    }
+
+    private static Map<Integer, model.UnitAction> actions(MyStrategy strategy, model.PlayerView playerView, Debug debug) {
+        Map<Integer, model.UnitAction> actions = new HashMap<>();
+        for (model.Unit unit : playerView.getGame().getUnits()) {
+            if (unit.getPlayerId() == playerView.getMyId()) {
+                actions.put(unit.getId(), strategy.getAction(unit, playerView.getGame(), debug));
+            }
+        }
+        return actions;
+    }
+
+    // the actions for the predicted next tick, computed in the background by a speculative copy of
+    // the strategy. Debug output of the speculation is dropped
+    private class Speculation {
+        final model.Game predicted;
+        final MyStrategy strategy;
+        final Future<Map<Integer, model.UnitAction>> actions;
+
+        Speculation(ExecutorService worker, model.PlayerView playerView) {
+            predicted = myStrategy.predictNextGame(playerView.getGame());
+            strategy = myStrategy.speculative();
+            model.PlayerView predictedView = new model.PlayerView(playerView.getMyId(), predicted);
+            actions = worker.submit(() -> actions(strategy, predictedView, new Debug()));
+        }
+
+        // the speculated actions if the prediction came true, then the speculative strategy goes on
+        // instead of the current one. Otherwise null without waiting for the speculation, which is told to stop
+        Map<Integer, model.UnitAction> result(model.Game actual) {
+            if (myStrategy.predictionHolds(predicted, actual)) {
+                try {
+                    Map<Integer, model.UnitAction> result = actions.get();
+                    speculationHits++;
+                    myStrategy = strategy;
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // the current strategy never saw the predicted tick, so it thinks about the actual one
+                }
+            }
+            speculationMisses++;
+            strategy.cancel();
+            return null;
+        }
+
+        void await() {
+            try {
+                actions.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // cancelled or failed, the result is dropped either way
+            }
         }
     }
 
@@ -0,0 +1,28 @@
+package logic;
+
+// keeps the lowest evaluation; ties go to the plan that comes first in the candidate order
+public class BestPlan {
+    public final TrajectoryBuffer states;
+    public Plan plan;
+    public double eval = Double.POSITIVE_INFINITY;
+    private int index = Integer.MAX_VALUE;
+
+    public BestPlan(int steps) {
+        states = new TrajectoryBuffer(steps);
+    }
+
+    public void offer(Plan plan, int index, double eval, TrajectoryBuffer states) {
+        if (eval < this.eval || this.plan != null && eval == this.eval && index < this.index) {
+            this.plan = plan;
+            this.eval = eval;
+            this.index = index;
+            this.states.copyFrom(states);
+        }
+    }
+
+    public void merge(BestPlan other) {
+        if (other.plan != null) {
+            offer(other.plan, other.index, other.eval, other.states);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package logic;
+
+import model.ExplosionParams;
+
+import static java.lang.Math.min;
+import static logic.Utils.distToBullet;
+
+// the bullets in flight at one tick as flat arrays, for scoring many unit trajectories against all
+// of them: positions are stored bullet after bullet for the first horizon ticks of the flight
+public class BulletSnapshot {
+    private final int horizon;
+    private int count;
+    private final double[] xs, ys;
+    // ticks of flight before hitting a wall, not capped by the horizon
+    private final int[] ticks;
+    private final int[] owners;
+    private final boolean[] hurtsOwner;
+    private final double[] sizes;
+    // bullet damage plus explosion damage
+    private final int[] damages;
+    private final boolean[] explodes;
+    private final double[] collisionXs, collisionYs, explosionSizes;
+    private final int[] explosionDamages;
+
+    public BulletSnapshot(int capacity, int horizon) {
+        this.horizon = horizon;
+        xs = new double[capacity * horizon];
+        ys = new double[capacity * horizon];
+        ticks = new int[capacity];
+        owners = new int[capacity];
+        hurtsOwner = new boolean[capacity];
+        sizes = new double[capacity];
+        damages = new int[capacity];
+        explodes = new boolean[capacity];
+        collisionXs = new double[capacity];
+        collisionYs = new double[capacity];
+        explosionSizes = new double[capacity];
+        explosionDamages = new int[capacity];
+    }
+
+    public void add(BulletTrajectory trajectory, int owner, boolean hurtsOwner, double size, int damage, ExplosionParams explosion) {
+        int b = count++;
+        int base = b * horizon;
+        for (int i = 0; i < min(trajectory.size(), horizon); i++) {
+            xs[base + i] = trajectory.x(i);
+            ys[base + i] = trajectory.y(i);
+        }
+        ticks[b] = trajectory.size();
+        owners[b] = owner;
+        this.hurtsOwner[b] = hurtsOwner;
+        sizes[b] = size;
+        damages[b] = explosion == null ? damage : damage + explosion.getDamage();
+        explodes[b] = explosion != null && trajectory.collisionPos != null;
+        if (explodes[b]) {
+            collisionXs[b] = trajectory.collisionPos.x;
+            collisionYs[b] = trajectory.collisionPos.y;
+            explosionSizes[b] = explosion.getRadius() * 2;
+            explosionDamages[b] = explosion.getDamage();
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // danger of the unit moving along states from all the bullets that can hurt it: those of other
+    // units and its own explosive ones
+    public double danger(TrajectoryBuffer states, int unitId, double minAllowedDist) {
+        double danger = 0;
+        for (int b = 0; b < count; b++) {
+            if (owners[b] != unitId || hurtsOwner[b]) {
+                danger += danger(b, states, minAllowedDist);
+            }
+        }
+        return danger;
+    }
+
+    public double danger(int b, TrajectoryBuffer states, double minAllowedDist) {
+        int n = states.size();
+        if (n > horizon) {
+            throw new IllegalArgumentException("Trajectory of " + n + " ticks is longer than the horizon " + horizon);
+        }
+        double danger = 0;
+        double minDist = minDist(states, b, min(ticks[b], n));
+        if (minDist > 0 && explodes[b] && ticks[b] < n) {
+            int i = ticks[b];
+            double distToExplosion = distToBullet(states.x(i), states.y(i), collisionXs[b], collisionYs[b], explosionSizes[b]);
+            danger += Utils.danger(minAllowedDist, distToExplosion, explosionDamages[b]);
+        }
+        danger += Utils.danger(minAllowedDist, minDist, damages[b]);
+        return danger;
+    }
+
+    // the closest the unit gets to the bullet during the first ticks, all of which have to be in
+    // both trajectories. No early exit on a hit keeps the loop free of branches
+    private double minDist(TrajectoryBuffer states, int b, int ticks) {
+        double[] unitXs = states.xs;
+        double[] unitYs = states.ys;
+        double size = sizes[b];
+        int base = b * horizon;
+        double minDist = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < ticks; i++) {
+            double dist = distToBullet(unitXs[i + 1], unitYs[i + 1], xs[base + i], ys[base + i], size);
+            minDist = min(minDist, dist);
+        }
+        return minDist;
+    }
+}
@@ -0,0 +1,96 @@
+package logic;
+
+import model.Bullet;
+import model.WeaponType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// trajectories of the bullets in flight, kept from tick to tick. A bullet is one seen before if it
+// was fired by the same unit from the same weapon, has the same velocity and is where that one was
+// bound to be by now; its trajectory is then the old one advanced by the ticks passed. Bullets not
+// seen on an update are dropped
+public class BulletTracker {
+    private static final double POSITION_EPS = 1e-6;
+
+    private final Simulator simulator;
+    private final int maxTicks;
+    private List<Tracked> tracked = new ArrayList<>();
+    private int hits, misses;
+
+    public BulletTracker(Simulator simulator, int maxTicks) {
+        this.simulator = simulator;
+        this.maxTicks = maxTicks;
+    }
+
+    public List<BulletTrajectory> update(Bullet[] bullets, int tick) {
+        List<Tracked> next = new ArrayList<>(bullets.length);
+        List<BulletTrajectory> r = new ArrayList<>(bullets.length);
+        for (Bullet bullet : bullets) {
+            Tracked t = find(bullet, tick);
+            if (t == null) {
+                t = new Tracked(bullet, tick, simulator.simulateBullet(bullet, maxTicks));
+                misses++;
+            } else {
+                hits++;
+            }
+            next.add(t);
+            r.add(t.trajectory.advance(tick - t.tick));
+        }
+        tracked = next;
+        return r;
+    }
+
+    // a tracker that goes on from the same bullets independently of this one
+    public BulletTracker copy() {
+        BulletTracker r = new BulletTracker(simulator, maxTicks);
+        r.tracked = new ArrayList<>(tracked);
+        r.hits = hits;
+        r.misses = misses;
+        return r;
+    }
+
+    public int hits() {
+        return hits;
+    }
+
+    public int misses() {
+        return misses;
+    }
+
+    private Tracked find(Bullet bullet, int tick) {
+        for (Tracked t : tracked) {
+            if (t.unitId != bullet.getUnitId() || t.weaponType != bullet.getWeaponType() ||
+                    t.speedX != bullet.getVelocity().getX() || t.speedY != bullet.getVelocity().getY() ||
+                    t.size != bullet.getSize()) {
+                continue;
+            }
+            double passed = (tick - t.tick) * simulator.tickDuration;
+            if (Math.abs(t.x + t.speedX * passed - bullet.getPosition().getX()) < POSITION_EPS &&
+                    Math.abs(t.y + t.speedY * passed - bullet.getPosition().getY()) < POSITION_EPS) {
+                return t;
+            }
+        }
+        return null;
+    }
+
+    private static class Tracked {
+        final int unitId;
+        final WeaponType weaponType;
+        final double x, y, speedX, speedY, size;
+        final int tick;
+        final BulletTrajectory trajectory;
+
+        Tracked(Bullet bullet, int tick, BulletTrajectory trajectory) {
+            this.unitId = bullet.getUnitId();
+            this.weaponType = bullet.getWeaponType();
+            this.x = bullet.getPosition().getX();
+            this.y = bullet.getPosition().getY();
+            this.speedX = bullet.getVelocity().getX();
+            this.speedY = bullet.getVelocity().getY();
+            this.size = bullet.getSize();
+            this.tick = tick;
+            this.trajectory = trajectory;
+        }
+    }
+}
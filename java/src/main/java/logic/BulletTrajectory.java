@@ -1,23 +1,64 @@
 package logic;
 
+import java.util.AbstractList;
 import java.util.List;
 
+// positions of a bullet after each tick until it touches a wall, computed on demand
 public class BulletTrajectory {
-    public final List<Point> positions;
     public final Point collisionPos;
     public final double bulletSize;
+    private final double startX, startY, tickX, tickY;
+    private final int ticks;
 
-    public BulletTrajectory(List<Point> positions, Point collisionPos, double bulletSize) {
-        this.positions = positions;
+    public BulletTrajectory(Point start, double tickX, double tickY, int ticks, Point collisionPos, double bulletSize) {
+        this(start.x, start.y, tickX, tickY, ticks, collisionPos, bulletSize);
+    }
+
+    private BulletTrajectory(double startX, double startY, double tickX, double tickY, int ticks, Point collisionPos, double bulletSize) {
+        this.startX = startX;
+        this.startY = startY;
+        this.tickX = tickX;
+        this.tickY = tickY;
+        this.ticks = ticks;
         this.collisionPos = collisionPos;
         this.bulletSize = bulletSize;
     }
 
     public int size() {
-        return positions.size();
+        return ticks;
+    }
+
+    public double x(int i) {
+        return startX + tickX * (i + 1);
+    }
+
+    public double y(int i) {
+        return startY + tickY * (i + 1);
+    }
+
+    // the rest of the trajectory after the given number of ticks
+    public BulletTrajectory advance(int passed) {
+        if (passed == 0) {
+            return this;
+        }
+        return new BulletTrajectory(x(passed - 1), y(passed - 1), tickX, tickY, Math.max(0, ticks - passed), collisionPos, bulletSize);
     }
 
     public Point get(int i) {
-        return positions.get(i);
+        return new Point(x(i), y(i));
+    }
+
+    public List<Point> positions() {
+        return new AbstractList<Point>() {
+            @Override
+            public Point get(int i) {
+                return BulletTrajectory.this.get(i);
+            }
+
+            @Override
+            public int size() {
+                return ticks;
+            }
+        };
     }
 }
@@ -0,0 +1,132 @@
+package logic;
+
+import model.Tile;
+
+import static java.lang.Math.abs;
+import static logic.Simulator.HEIGHT;
+import static logic.Simulator.WIDTH;
+import static model.Tile.*;
+
+// per tile type bitmasks of the level: bit y of a column mask and bit x of a row mask are set
+// when map[x][y] has that type. Levels up to 64 tiles high/wide fit one long per column/row,
+// which lets a whole unit be checked with a couple of loads
+public class CollisionMap {
+    public final int width, height;
+    private final int columnWords, rowWords;
+    private final long[][] columns;
+    private final long[][] rows;
+    private final long[] wallColumns, ladderColumns;
+    private final long[] wallRows, platformRows, ladderRows;
+
+    public CollisionMap(Tile[][] map) {
+        width = map.length;
+        height = map[0].length;
+        columnWords = (height + 63) >>> 6;
+        rowWords = (width + 63) >>> 6;
+        int types = Tile.values().length;
+        columns = new long[types][width * columnWords];
+        rows = new long[types][height * rowWords];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int type = map[x][y].ordinal();
+                columns[type][x * columnWords + (y >>> 6)] |= 1L << y;
+                rows[type][y * rowWords + (x >>> 6)] |= 1L << x;
+            }
+        }
+        wallColumns = columns[WALL.ordinal()];
+        ladderColumns = columns[LADDER.ordinal()];
+        wallRows = rows[WALL.ordinal()];
+        platformRows = rows[PLATFORM.ordinal()];
+        ladderRows = rows[LADDER.ordinal()];
+    }
+
+    public boolean tileIs(double x, double y, Tile tile) {
+        return has(columns[tile.ordinal()], columnWords, (int) x, (int) y);
+    }
+
+    public boolean unitCollidesWith(double x, double y, Tile tile) {
+        long[] masks = columns[tile.ordinal()];
+        int left = (int) (x - WIDTH / 2);
+        int right = (int) (x + WIDTH / 2);
+        int bottom = (int) y;
+        int middle = (int) (y + HEIGHT / 2);
+        int top = (int) (y + HEIGHT);
+        if (columnWords == 1) {
+            long rowBits = 1L << bottom | 1L << middle | 1L << top;
+            return ((masks[left] | masks[right]) & rowBits) != 0;
+        }
+        return has(masks, columnWords, right, bottom) ||
+                has(masks, columnWords, left, bottom) ||
+                has(masks, columnWords, right, top) ||
+                has(masks, columnWords, left, top) ||
+                has(masks, columnWords, left, middle) ||
+                has(masks, columnWords, right, middle);
+    }
+
+    public boolean bulletCollidesWithWall(double x, double y, double size) {
+        long[] masks = wallColumns;
+        int left = (int) (x - size / 2);
+        int right = (int) (x + size / 2);
+        int bottom = (int) (y - size / 2);
+        int top = (int) (y + size / 2);
+        if (columnWords == 1) {
+            long rowBits = 1L << bottom | 1L << top;
+            return ((masks[left] | masks[right]) & rowBits) != 0;
+        }
+        return has(masks, columnWords, left, bottom) ||
+                has(masks, columnWords, left, top) ||
+                has(masks, columnWords, right, bottom) ||
+                has(masks, columnWords, right, top);
+    }
+
+    // standing on a wall or platform under either side of the unit, or on a ladder under its center
+    public boolean isStanding(double px, double py) {
+        int y = (int) py;
+        if (y == 0) {
+            return true;
+        }
+        if (abs(py - y) >= 1e-8) {
+            return false;
+        }
+        int left = (int) (px - WIDTH / 2);
+        int right = (int) (px + WIDTH / 2);
+        int center = (int) px;
+        int row = y - 1;
+        if (rowWords == 1) {
+            long solid = wallRows[row] | platformRows[row];
+            return (solid & (1L << left | 1L << right | 1L << center)) != 0
+                    || (ladderRows[row] & 1L << center) != 0;
+        }
+        return standsOn(left, row) || standsOn(right, row) || standsOn(center, row)
+                || has(ladderRows, rowWords, row, center);
+    }
+
+    public boolean isStandingOnWall(double px, double py) {
+        int y = (int) py;
+        int row = y - 1;
+        int left = (int) (px - WIDTH / 2);
+        int right = (int) (px + WIDTH / 2);
+        return has(wallRows, rowWords, row, left) && has(wallRows, rowWords, row, right) && abs(py - y) < 1e-9;
+    }
+
+    public boolean onLadder(double x, double y) {
+        int column = (int) x;
+        return has(ladderColumns, columnWords, column, (int) y) || has(ladderColumns, columnWords, column, (int) (y + HEIGHT / 2));
+    }
+
+    // a platform under either side of the unit or a ladder under its center
+    public boolean platformOrLadderAt(double x, double y) {
+        int row = (int) y;
+        return has(platformRows, rowWords, row, (int) (x - WIDTH / 2))
+                || has(platformRows, rowWords, row, (int) (x + WIDTH / 2))
+                || has(ladderRows, rowWords, row, (int) x);
+    }
+
+    private boolean standsOn(int x, int row) {
+        return has(wallRows, rowWords, row, x) || has(platformRows, rowWords, row, x);
+    }
+
+    private static boolean has(long[] masks, int words, int line, int bit) {
+        return (masks[line * words + (bit >>> 6)] >>> bit & 1) != 0;
+    }
+}
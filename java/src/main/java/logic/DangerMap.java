@@ -0,0 +1,221 @@
+package logic;
+
+import java.util.Arrays;
+
+import static java.lang.Math.*;
+import static logic.Simulator.HEIGHT;
+import static logic.Simulator.WIDTH;
+import static logic.Utils.segmentDist;
+
+// danger of the unit standing in a sub-tile cell after each tick of the plan, rasterized once a tick
+// from the bullets and mines, so that scoring a plan is a lookup per tick. A cell stands for all
+// positions of the unit inside it, so distances are the smallest over the cell. Otherwise it scores
+// like BulletSnapshot.danger: hits are kept as bitmasks of the bullets and explosions that touch the
+// cell, which counts each of them once per plan, and a bullet or explosion that misses adds the near
+// miss of the tick it comes closest
+public class DangerMap {
+    private static final int MAX_SOURCES = 64;
+
+    private final int resolution, width, height, horizon;
+    private final double minAllowedDist;
+    // cell entries by tick * width * height + cell, 0 for none, otherwise the index of the entry plus 1
+    private final int[] entries;
+    private int[] used = new int[64];
+    private int usedCount;
+    private long[] hits = new long[64], explosions = new long[64];
+    // near misses of the entries as lists of the source, plus MAX_SOURCES for explosions, and the penalty
+    private int[] nearMissHeads = new int[64];
+    private int[] nearMissSources = new int[64], nearMissNexts = new int[64];
+    private float[] nearMissPenalties = new float[64];
+    private int nearMissCount;
+    private final int[] hitDamages = new int[MAX_SOURCES], explosionDamages = new int[MAX_SOURCES];
+    // the unit that fired the bullet, -1 for mines, which hurt everybody
+    private final int[] owners = new int[MAX_SOURCES];
+    private final boolean[] hurtsOwner = new boolean[MAX_SOURCES];
+    private int sources;
+    private boolean overflow;
+    // the near miss penalties of a plan by source, zeroed again after scoring it; plans are scored in parallel
+    private final ThreadLocal<float[]> penaltiesScratch = ThreadLocal.withInitial(() -> new float[2 * MAX_SOURCES]);
+
+    public DangerMap(int width, int height, int resolution, int horizon, double minAllowedDist) {
+        this.resolution = resolution;
+        this.width = width * resolution;
+        this.height = height * resolution;
+        this.horizon = horizon;
+        this.minAllowedDist = minAllowedDist;
+        this.entries = new int[horizon * this.width * this.height];
+    }
+
+    public void clear() {
+        for (int i = 0; i < usedCount; i++) {
+            entries[used[i]] = 0;
+        }
+        usedCount = 0;
+        nearMissCount = 0;
+        sources = 0;
+        overflow = false;
+    }
+
+    // false if there were too many bullets and mines to tell them apart, then the map can't be used
+    public boolean complete() {
+        return !overflow;
+    }
+
+    // damage already includes the explosion damage, explosionDamage is 0 for bullets that don't explode
+    public void addBullet(BulletTrajectory trajectory, int owner, boolean hurtsOwner, int damage,
+                          double explosionSize, int explosionDamage) {
+        int source = newSource(owner, hurtsOwner, damage, explosionDamage);
+        if (source < 0) {
+            return;
+        }
+        for (int i = 0; i < min(trajectory.size(), horizon); i++) {
+            rasterize(i, trajectory.x(i), trajectory.y(i), trajectory.bulletSize, source, false);
+        }
+        if (explosionDamage > 0 && trajectory.collisionPos != null && trajectory.size() < horizon) {
+            Point at = trajectory.collisionPos;
+            rasterize(trajectory.size(), at.x, at.y, explosionSize, source, true);
+        }
+    }
+
+    public void addExplosion(int tick, double x, double y, double size, int damage) {
+        int source = newSource(-1, true, 0, damage);
+        if (source >= 0 && tick < horizon) {
+            rasterize(tick, x, y, size, source, true);
+        }
+    }
+
+    // same meaning as BulletSnapshot.danger plus the mines, but the distances are decided by the cells
+    public double danger(TrajectoryBuffer states, int unitId) {
+        int n = min(states.size(), horizon);
+        int cells = width * height;
+        long hit = 0, exploded = 0;
+        float[] penalties = null;
+        for (int i = 0; i < n; i++) {
+            int entry = entries[i * cells + cellOf(states.x(i), states.y(i))] - 1;
+            if (entry < 0) {
+                continue;
+            }
+            hit |= hits[entry];
+            exploded |= explosions[entry];
+            for (int nearMiss = nearMissHeads[entry]; nearMiss >= 0; nearMiss = nearMissNexts[nearMiss]) {
+                if (penalties == null) {
+                    penalties = penaltiesScratch.get();
+                }
+                int source = nearMissSources[nearMiss];
+                penalties[source] = max(penalties[source], nearMissPenalties[nearMiss]);
+            }
+        }
+        long harmless = 0;
+        for (int source = 0; source < sources; source++) {
+            if (owners[source] == unitId && !hurtsOwner[source]) {
+                harmless |= 1L << source;
+            }
+        }
+        hit &= ~harmless;
+        exploded &= ~harmless;
+        // a bullet that hits the unit doesn't explode on the wall
+        exploded &= ~hit;
+        double danger = 0;
+        for (long h = hit; h != 0; h &= h - 1) {
+            danger += hitDamages[Long.numberOfTrailingZeros(h)];
+        }
+        for (long e = exploded; e != 0; e &= e - 1) {
+            danger += explosionDamages[Long.numberOfTrailingZeros(e)];
+        }
+        if (penalties != null) {
+            for (int source = 0; source < sources; source++) {
+                long bit = 1L << source;
+                if ((harmless & bit) == 0 && (hit & bit) == 0) {
+                    danger += penalties[source];
+                    if ((exploded & bit) == 0) {
+                        danger += penalties[MAX_SOURCES + source];
+                    }
+                }
+                penalties[source] = 0;
+                penalties[MAX_SOURCES + source] = 0;
+            }
+        }
+        return danger;
+    }
+
+    private int newSource(int owner, boolean hurtsOwner, int hitDamage, int explosionDamage) {
+        if (sources == MAX_SOURCES) {
+            overflow = true;
+            return -1;
+        }
+        owners[sources] = owner;
+        this.hurtsOwner[sources] = hurtsOwner;
+        hitDamages[sources] = hitDamage;
+        explosionDamages[sources] = explosionDamage;
+        return sources++;
+    }
+
+    private void rasterize(int tick, double x, double y, double size, int source, boolean explosion) {
+        double cellSize = 1.0 / resolution;
+        double reach = size / 2 + minAllowedDist;
+        int fromX = max(0, (int) floor((x - reach - WIDTH / 2) * resolution) - 1);
+        int toX = min(width - 1, (int) floor((x + reach + WIDTH / 2) * resolution) + 1);
+        int fromY = max(0, (int) floor((y - reach - HEIGHT) * resolution) - 1);
+        int toY = min(height - 1, (int) floor((y + reach) * resolution) + 1);
+        for (int cx = fromX; cx <= toX; cx++) {
+            double distX = segmentDist(cx * cellSize - WIDTH / 2, (cx + 1) * cellSize + WIDTH / 2, x - size / 2, x + size / 2);
+            if (distX >= minAllowedDist) {
+                continue;
+            }
+            for (int cy = fromY; cy <= toY; cy++) {
+                double dist = max(distX, segmentDist(cy * cellSize, (cy + 1) * cellSize + HEIGHT, y - size / 2, y + size / 2));
+                if (dist >= minAllowedDist) {
+                    continue;
+                }
+                int entry = entry(tick * width * height + cx * height + cy);
+                if (dist == 0) {
+                    if (explosion) {
+                        explosions[entry] |= 1L << source;
+                    } else {
+                        hits[entry] |= 1L << source;
+                    }
+                } else {
+                    addNearMiss(entry, explosion ? MAX_SOURCES + source : source, (float) Utils.danger(minAllowedDist, dist, 0));
+                }
+            }
+        }
+    }
+
+    private int entry(int index) {
+        if (entries[index] != 0) {
+            return entries[index] - 1;
+        }
+        if (usedCount == used.length) {
+            used = Arrays.copyOf(used, usedCount * 2);
+            hits = Arrays.copyOf(hits, usedCount * 2);
+            explosions = Arrays.copyOf(explosions, usedCount * 2);
+            nearMissHeads = Arrays.copyOf(nearMissHeads, usedCount * 2);
+        }
+        int entry = usedCount++;
+        used[entry] = index;
+        hits[entry] = 0;
+        explosions[entry] = 0;
+        nearMissHeads[entry] = -1;
+        entries[index] = entry + 1;
+        return entry;
+    }
+
+    private void addNearMiss(int entry, int source, float penalty) {
+        if (nearMissCount == nearMissSources.length) {
+            nearMissSources = Arrays.copyOf(nearMissSources, nearMissCount * 2);
+            nearMissNexts = Arrays.copyOf(nearMissNexts, nearMissCount * 2);
+            nearMissPenalties = Arrays.copyOf(nearMissPenalties, nearMissCount * 2);
+        }
+        int nearMiss = nearMissCount++;
+        nearMissSources[nearMiss] = source;
+        nearMissPenalties[nearMiss] = penalty;
+        nearMissNexts[nearMiss] = nearMissHeads[entry];
+        nearMissHeads[entry] = nearMiss;
+    }
+
+    private int cellOf(double x, double y) {
+        int cx = min(width - 1, max(0, (int) (x * resolution)));
+        int cy = min(height - 1, max(0, (int) (y * resolution)));
+        return cx * height + cy;
+    }
+}
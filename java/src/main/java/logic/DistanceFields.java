@@ -0,0 +1,163 @@
+package logic;
+
+import model.Tile;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static model.Tile.WALL;
+
+// BFS distances over the level cells towards a target cell, stored flat as dist[x * height + y].
+// The level never changes, so fields are kept per target cell in a small LRU
+public class DistanceFields {
+    public static final int INF = (int) 1e9;
+
+    public final int width, height;
+    private final boolean[] passable;
+    private final LinkedHashMap<Integer, int[]> fields;
+    private final int[] queue;
+    private volatile DistanceTable table;
+
+    public DistanceFields(Tile[][] map, int capacity) {
+        width = map.length;
+        height = map[0].length;
+        passable = new boolean[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                passable[x * height + y] = map[x][y] != WALL &&
+                        !(y + 1 < height && map[x][y + 1] == WALL && y > 0 && map[x][y - 1] == WALL);
+            }
+        }
+        fields = new LinkedHashMap<Integer, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+        queue = new int[width * height];
+    }
+
+    public synchronized int[] get(int targetX, int targetY) {
+        int target = targetX * height + targetY;
+        int[] dist = fields.get(target);
+        if (dist == null) {
+            DistanceTable table = this.table;
+            dist = table != null ? table.field(targetX, targetY) : compute(targetX, targetY);
+            fields.put(target, dist);
+        }
+        return dist;
+    }
+
+    public int[] get(Point target) {
+        return get((int) target.x, (int) target.y);
+    }
+
+    // once set, fields missing from the cache are copied from the table instead of running a BFS
+    public void setTable(DistanceTable table) {
+        this.table = table;
+    }
+
+    public DistanceTable table() {
+        return table;
+    }
+
+    public int size() {
+        return fields.size();
+    }
+
+    public synchronized int[] compute(int targetX, int targetY) {
+        int[] dist = new int[width * height];
+        Arrays.fill(dist, INF);
+        int head = 0;
+        int tail = 0;
+        int start = targetX * height + targetY;
+        dist[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cur = queue[head++];
+            int x = cur / height;
+            int y = cur % height;
+            int next = dist[cur] + 1;
+            if (x + 1 < width) {
+                tail = visit(dist, cur + height, next, tail);
+            }
+            if (x > 0) {
+                tail = visit(dist, cur - height, next, tail);
+            }
+            if (y + 1 < height) {
+                tail = visit(dist, cur + 1, next, tail);
+            }
+            if (y > 0) {
+                tail = visit(dist, cur - 1, next, tail);
+            }
+        }
+        return dist;
+    }
+
+    // like compute, but starting from several cells at once with their own initial distances
+    // (INF for cells that are not sources)
+    public synchronized int[] spread(int[] seeds) {
+        int[] dist = seeds.clone();
+        int sources = 0;
+        for (int cell = 0; cell < dist.length; cell++) {
+            if (dist[cell] != INF) {
+                sources++;
+            }
+        }
+        long[] sorted = new long[sources];
+        for (int cell = 0, i = 0; cell < dist.length; cell++) {
+            if (dist[cell] != INF) {
+                sorted[i++] = (long) dist[cell] << 32 | cell;
+            }
+        }
+        Arrays.sort(sorted);
+        // merging the sorted sources with the FIFO of reached cells keeps the processing order by distance
+        int head = 0;
+        int tail = 0;
+        int next = 0;
+        while (next < sorted.length || head < tail) {
+            int cur;
+            if (head == tail || next < sorted.length && (int) (sorted[next] >>> 32) <= dist[queue[head]]) {
+                cur = (int) sorted[next++];
+                if ((int) (sorted[next - 1] >>> 32) != dist[cur]) {
+                    continue;
+                }
+            } else {
+                cur = queue[head++];
+            }
+            int x = cur / height;
+            int y = cur % height;
+            int d = dist[cur] + 1;
+            if (x + 1 < width) {
+                tail = relax(dist, cur + height, d, tail);
+            }
+            if (x > 0) {
+                tail = relax(dist, cur - height, d, tail);
+            }
+            if (y + 1 < height) {
+                tail = relax(dist, cur + 1, d, tail);
+            }
+            if (y > 0) {
+                tail = relax(dist, cur - 1, d, tail);
+            }
+        }
+        return dist;
+    }
+
+    private int relax(int[] dist, int cell, int d, int tail) {
+        if (passable[cell] && d < dist[cell]) {
+            dist[cell] = d;
+            queue[tail++] = cell;
+        }
+        return tail;
+    }
+
+    private int visit(int[] dist, int cell, int d, int tail) {
+        if (passable[cell] && dist[cell] == INF) {
+            dist[cell] = d;
+            queue[tail++] = cell;
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,106 @@
+package logic;
+
+import model.Tile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+// all-pairs BFS distances of a level: row t holds DistanceFields.compute(t) as shorts (INF as -1).
+// 40x30 levels take under 3 MB. The table can be saved next to other levels' tables and memory
+// mapped back by later games on the same level
+public class DistanceTable {
+    private static final int HEADER = 2 * Integer.BYTES;
+
+    public final int width, height, cells;
+    private final ShortBuffer dist;
+
+    private DistanceTable(int width, int height, ShortBuffer dist) {
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.dist = dist;
+    }
+
+    public static DistanceTable build(Tile[][] map) {
+        DistanceFields fields = new DistanceFields(map, 0);
+        int cells = fields.width * fields.height;
+        short[] dist = new short[cells * cells];
+        for (int target = 0; target < cells; target++) {
+            int[] field = fields.compute(target / fields.height, target % fields.height);
+            for (int cell = 0; cell < cells; cell++) {
+                dist[target * cells + cell] = field[cell] == DistanceFields.INF ? -1 : (short) field[cell];
+            }
+        }
+        return new DistanceTable(fields.width, fields.height, ShortBuffer.wrap(dist));
+    }
+
+    // maps the table of this level from dir, building and saving it first if it is not there yet
+    public static DistanceTable load(Tile[][] map, File dir) {
+        File file = new File(dir, String.format("distances-%016x.bin", hash(map)));
+        try {
+            if (!file.exists()) {
+                save(build(map), file);
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+                ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+                int width = bytes.getInt();
+                int height = bytes.getInt();
+                if (width != map.length || height != map[0].length || channel.size() != HEADER + 2L * sqr(width * height)) {
+                    throw new IOException("Corrupted distance table " + file);
+                }
+                return new DistanceTable(width, height, bytes.slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void save(DistanceTable table, File file) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER + 2 * table.dist.capacity()).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putInt(table.width).putInt(table.height);
+        bytes.asShortBuffer().put(table.dist.duplicate());
+        File tmp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+        Files.write(tmp.toPath(), bytes.array());
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static long hash(Tile[][] map) {
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ map.length) * 0x100000001b3L;
+        h = (h ^ map[0].length) * 0x100000001b3L;
+        for (Tile[] column : map) {
+            for (Tile tile : column) {
+                h = (h ^ tile.ordinal()) * 0x100000001b3L;
+            }
+        }
+        return h;
+    }
+
+    public int get(int targetX, int targetY, int x, int y) {
+        int d = dist.get((targetX * height + targetY) * cells + x * height + y);
+        return d < 0 ? DistanceFields.INF : d;
+    }
+
+    // the same as DistanceFields.compute(targetX, targetY)
+    public int[] field(int targetX, int targetY) {
+        int[] r = new int[cells];
+        int row = (targetX * height + targetY) * cells;
+        for (int cell = 0; cell < cells; cell++) {
+            int d = dist.get(row + cell);
+            r[cell] = d < 0 ? DistanceFields.INF : d;
+        }
+        return r;
+    }
+
+    private static long sqr(long v) {
+        return v * v;
+    }
+}
@@ -1,39 +1,85 @@
 package logic;
 
-import java.util.Objects;
+import static logic.Simulator.SPEED;
 
+// the moves of the fixed set, walking left, standing or walking right at full speed with or without
+// jumping, are interned: each is one object with a small id, so plans and caches can key on it. Other
+// speeds come from targets and change every tick, so those moves are plain objects compared by value
 public class MoveAction {
+    public static final int NOT_INTERNED = -1;
+    private static final MoveAction[] interned = intern();
+
+    public final int id;
     public final double speed;
     public final boolean jump;
     public final boolean jumpDown;
 
-    public MoveAction(double speed, boolean jump, boolean jumpDown) {
-        if (jump && jumpDown) {
-            throw new RuntimeException();
-        }
+    private MoveAction(int id, double speed, boolean jump, boolean jumpDown) {
+        this.id = id;
         this.speed = speed;
         this.jump = jump;
         this.jumpDown = jumpDown;
     }
 
+    public static MoveAction of(double speed, boolean jump, boolean jumpDown) {
+        if (jump && jumpDown) {
+            throw new IllegalArgumentException("can't jump and jump down at once");
+        }
+        int kind = jump ? 1 : jumpDown ? 2 : 0;
+        // speeds are told apart bit for bit, so -0.0 is not the interned 0.0
+        long bits = Double.doubleToLongBits(speed);
+        if (bits == Double.doubleToLongBits(-SPEED)) {
+            return interned[kind];
+        } else if (bits == 0) {
+            return interned[3 + kind];
+        } else if (bits == Double.doubleToLongBits(SPEED)) {
+            return interned[6 + kind];
+        }
+        return new MoveAction(NOT_INTERNED, speed, jump, jumpDown);
+    }
+
+    public static MoveAction byId(int id) {
+        return interned[id];
+    }
+
+    public boolean interned() {
+        return id != NOT_INTERNED;
+    }
+
+    private static MoveAction[] intern() {
+        MoveAction[] r = new MoveAction[9];
+        double[] speeds = {-SPEED, 0, SPEED};
+        for (int i = 0; i < r.length; i++) {
+            r[i] = new MoveAction(i, speeds[i / 3], i % 3 == 1, i % 3 == 2);
+        }
+        return r;
+    }
+
     @Override
     public String toString() {
         return String.format(
-                "new MoveAction(%s,%s,%s)",
+                "MoveAction.of(%s,%s,%s)",
                 speed, jump, jumpDown
         );
     }
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         MoveAction that = (MoveAction) o;
-        return Double.compare(that.speed, speed) == 0 &&
+        return !interned() && !that.interned() &&
+                Double.compare(speed, that.speed) == 0 &&
                 jump == that.jump &&
                 jumpDown == that.jumpDown;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(speed, jump, jumpDown);
+        if (interned()) {
+            return id;
+        }
+        return (Double.hashCode(speed) * 31 + (jump ? 1 : 0)) * 31 + (jumpDown ? 1 : 0);
     }
 }
@@ -0,0 +1,49 @@
+package logic;
+
+// unit states packed into three longs: the bits of x and y, and the bits of the remaining jump time
+// with the two flags in its top bits, which are 0 for all jump times the game has (0 to 2 s). Packing
+// is exact, so packed states compare and hash bit for bit where Point and UnitState only compare
+// with an epsilon
+public final class PackedState {
+    private static final long CAN_JUMP = 1L << 63;
+    private static final long CAN_CANCEL = 1L << 62;
+
+    private PackedState() {
+    }
+
+    public static long coordinate(double v) {
+        return Double.doubleToLongBits(v);
+    }
+
+    public static double coordinate(long bits) {
+        return Double.longBitsToDouble(bits);
+    }
+
+    // false for jump times the flags don't fit next to, such as -0.0, which then can't be packed
+    public static boolean packable(double remainingJumpTime) {
+        return (Double.doubleToRawLongBits(remainingJumpTime) & (CAN_JUMP | CAN_CANCEL)) == 0;
+    }
+
+    public static long jump(double remainingJumpTime, boolean canJump, boolean canCancel) {
+        return Double.doubleToRawLongBits(remainingJumpTime) | (canJump ? CAN_JUMP : 0) | (canCancel ? CAN_CANCEL : 0);
+    }
+
+    public static double remainingJumpTime(long jump) {
+        return Double.longBitsToDouble(jump & ~(CAN_JUMP | CAN_CANCEL));
+    }
+
+    public static boolean canJump(long jump) {
+        return (jump & CAN_JUMP) != 0;
+    }
+
+    public static boolean canCancel(long jump) {
+        return (jump & CAN_CANCEL) != 0;
+    }
+
+    public static int hash(long x, long y, long jump) {
+        long h = x * 0x9E3779B97F4A7C15L + y;
+        h = h * 0x9E3779B97F4A7C15L + jump;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ h >>> 32);
+    }
+}
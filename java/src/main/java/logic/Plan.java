@@ -1,80 +1,204 @@
 package logic;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
+// moves as runs of equal moves. Follow-up plans share the run arrays with the plan they follow, seeing
+// them from a later tick and up to their own size. Only the plan that allocated the arrays changes them,
+// and only past the ticks others see; any other plan copies its own runs before adding to them
 public class Plan {
-    public final List<MoveAction> moves = new ArrayList<>();
-    public final List<HistoryRecord> history = new ArrayList<>();
+    private Runs runs;
+    // the plan takes ticks offset to offset + size of the runs, which are runs first to last - 1
+    private int first, last, offset, size;
+    private int hash;
+
+    public Plan() {
+        runs = new Runs(this, 4);
+    }
+
+    private Plan(Runs runs, int offset, int size) {
+        this.runs = runs;
+        this.offset = offset;
+        this.size = size;
+        first = runAt(offset, 0, runs.count);
+        last = size == 0 ? first : runAt(offset + size - 1, first, runs.count) + 1;
+    }
 
     public static Plan plan(int n, MoveAction move) {
         return new Plan().add(n, move);
     }
 
     public static Plan plan(int n, double speed, boolean jump, boolean jumpDown) {
-        return new Plan().add(n, new MoveAction(speed, jump, jumpDown));
+        return new Plan().add(n, MoveAction.of(speed, jump, jumpDown));
     }
 
     public Plan add(int n, MoveAction move) {
-        moves.addAll(Collections.nCopies(n, move));
-        if (n != 0) {
-            history.add(new HistoryRecord(n, move));
+        if (n < 0) {
+            throw new IllegalArgumentException("n = " + n);
+        }
+        if (n == 0) {
+            return this;
+        }
+        int end = offset + size;
+        if (runs.owner != this || runs.count != last || last > first && runs.ends[last - 1] != end) {
+            copyRuns();
+            end = size;
         }
+        if (last > first && runs.is(last - 1, move)) {
+            runs.ends[last - 1] = end + n;
+        } else {
+            runs.append(move, end + n);
+            last++;
+        }
+        size += n;
+        hash = 0;
         return this;
     }
 
     public Plan add(int n, double speed, boolean jump, boolean jumpDown) {
-        return add(n, new MoveAction(speed, jump, jumpDown));
+        return add(n, MoveAction.of(speed, jump, jumpDown));
+    }
+
+    public int size() {
+        return size;
     }
 
     public MoveAction get(int index) {
-        return moves.get(index);
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return runs.move(runAt(offset + index, first, last));
     }
 
+    public int runsCount() {
+        return last - first;
+    }
+
+    public MoveAction runMove(int run) {
+        return runs.move(first + run);
+    }
+
+    public int runLength(int run) {
+        int r = first + run;
+        int start = r == first ? offset : runs.ends[r - 1];
+        return Math.min(runs.ends[r], offset + size) - start;
+    }
+
+    // this plan without its first move, cut or extended with move to the expected length
     public Plan followUpPlan(MoveAction move, int expectedLength) {
-        Plan r = new Plan();
-        r.moves.addAll(moves);
-        r.moves.remove(0);
-
-        r.history.addAll(history);
-        HistoryRecord firstHr = history.get(0);
-        if (firstHr.n == 1) {
-            r.history.remove(0);
-        } else {
-            r.history.set(0, new HistoryRecord(firstHr.n - 1, firstHr.move));
-        }
-        r.add(expectedLength - r.moves.size(), move);
-        return r;
+        Plan r = new Plan(runs, offset + 1, Math.min(size - 1, expectedLength));
+        return r.add(expectedLength - r.size, move);
     }
 
-    @Override
-    public String toString() {
-        return "new Plan()" + history.stream()
-                .map(r -> String.format("\n.add(%s,%s)", r.n, r.move))
-                .collect(Collectors.joining());
+    // the run taking the tick of the arrays, searched among runs from to to - 1
+    private int runAt(int tick, int from, int to) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (runs.ends[mid] <= tick) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
     }
 
-    static class HistoryRecord {
-        public final int n;
-        public final MoveAction move;
+    private void copyRuns() {
+        Runs copy = new Runs(this, runsCount() + 2);
+        for (int run = 0; run < runsCount(); run++) {
+            copy.append(runMove(run), (copy.count == 0 ? 0 : copy.ends[copy.count - 1]) + runLength(run));
+        }
+        runs = copy;
+        first = 0;
+        last = copy.count;
+        offset = 0;
+    }
 
-        HistoryRecord(int n, MoveAction move) {
-            this.n = n;
-            this.move = move;
+    @Override
+    public String toString() {
+        StringBuilder r = new StringBuilder("new Plan()");
+        for (int run = 0; run < runsCount(); run++) {
+            r.append(String.format("\n.add(%s,%s)", runLength(run), runMove(run)));
         }
+        return r.toString();
     }
 
+    // equal runs of moves, as adding a move equal to the last one extends the last run
     @Override
     public boolean equals(Object o) {
         Plan plan = (Plan) o;
-        return moves.equals(plan.moves);
+        if (size != plan.size || runsCount() != plan.runsCount() || hashCode() != plan.hashCode()) {
+            return false;
+        }
+        for (int run = 0; run < runsCount(); run++) {
+            if (runLength(run) != plan.runLength(run) || !sameMove(run, plan)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(moves);
+        if (hash == 0) {
+            int h = 1;
+            for (int run = 0; run < runsCount(); run++) {
+                h = 31 * (31 * h + runMove(run).hashCode()) + runLength(run);
+            }
+            hash = h == 0 ? 1 : h;
+        }
+        return hash;
+    }
+
+    private boolean sameMove(int run, Plan plan) {
+        int move = runs.moves[first + run];
+        int other = plan.runs.moves[plan.first + run];
+        // interned moves are equal exactly when their ids are
+        return move == other && move >= 0 || move < 0 && other < 0 && runMove(run).equals(plan.runMove(run));
+    }
+
+    // the run arrays, possibly shared by several plans; count is the number of runs written so far
+    private static class Runs {
+        // the plan allocating the arrays, the only one writing them
+        final Plan owner;
+        // ids of interned moves, -1 - i for the i-th of the others
+        int[] moves;
+        int[] ends;
+        int count;
+        MoveAction[] others = new MoveAction[0];
+        int othersCount;
+
+        Runs(Plan owner, int capacity) {
+            this.owner = owner;
+            moves = new int[capacity];
+            ends = new int[capacity];
+        }
+
+        void append(MoveAction move, int end) {
+            if (count == moves.length) {
+                moves = Arrays.copyOf(moves, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            if (move.interned()) {
+                moves[count] = move.id;
+            } else {
+                if (othersCount == others.length) {
+                    others = Arrays.copyOf(others, Math.max(2, othersCount * 2));
+                }
+                others[othersCount++] = move;
+                moves[count] = -othersCount;
+            }
+            ends[count] = end;
+            count++;
+        }
+
+        MoveAction move(int run) {
+            int move = moves[run];
+            return move >= 0 ? MoveAction.byId(move) : others[-1 - move];
+        }
+
+        boolean is(int run, MoveAction move) {
+            return move.interned() ? moves[run] == move.id : moves[run] < 0 && move(run).equals(move);
+        }
     }
 }
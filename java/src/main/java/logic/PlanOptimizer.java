@@ -0,0 +1,140 @@
+package logic;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+import static logic.Simulator.SPEED;
+
+// evolutionary search over plans as lists of runs: each generation keeps the best plans found so
+// far and fills the population with their mutations, which change the length or the move of a segment,
+// split one in two or merge it into its neighbour. Stops when the simulated ticks reach the budget
+public class PlanOptimizer {
+    private static final MoveAction[] MOVES = moves();
+
+    private final Simulator simulator;
+    private final int populationSize, elitesCount;
+
+    public PlanOptimizer(Simulator simulator, int populationSize, int elitesCount) {
+        this.simulator = simulator;
+        this.populationSize = populationSize;
+        this.elitesCount = elitesCount;
+    }
+
+    public static class Result {
+        public final BestPlan best;
+        // the best plans in increasing evaluation order, to seed the next tick with
+        public final List<Plan> elites;
+        public final int simulatedTicks;
+
+        Result(BestPlan best, List<Plan> elites, int simulatedTicks) {
+            this.best = best;
+            this.elites = elites;
+            this.simulatedTicks = simulatedTicks;
+        }
+    }
+
+    // seeds have to be of the given length. The first generation evaluates all of them and random plans
+    // up to the population size, whatever the budget
+    public Result optimize(List<Plan> seeds, UnitState start, int steps, int budget, Random random,
+                           ToDoubleFunction<TrajectoryBuffer> evaluator) {
+        BestPlan best = new BestPlan(steps);
+        TrajectoryBuffer states = new TrajectoryBuffer(steps);
+        Map<Plan, Double> evals = new HashMap<>();
+        List<Plan> elites = new ArrayList<>();
+        Set<Plan> first = new LinkedHashSet<>(seeds);
+        // the rest of the first generation are random two segment plans, as most of the good ones are
+        for (int attempt = 0; first.size() < populationSize && attempt < 4 * populationSize; attempt++) {
+            int head = random.nextInt(steps + 1);
+            first.add(Plan.plan(head, MOVES[random.nextInt(MOVES.length)]).add(steps - head, MOVES[random.nextInt(MOVES.length)]));
+        }
+        List<Plan> generation = new ArrayList<>(first);
+        int simulatedTicks = 0;
+        int offset = 0;
+        while (!generation.isEmpty()) {
+            PlanTree tree = new PlanTree(generation);
+            int generationOffset = offset;
+            tree.search(simulator, start, states, (plan, index, trajectory) -> {
+                double eval = evaluator.applyAsDouble(trajectory);
+                evals.put(plan, eval);
+                best.offer(plan, generationOffset + index, eval, trajectory);
+            });
+            simulatedTicks += tree.simulatedTicks();
+            offset += generation.size();
+
+            elites.addAll(generation);
+            // stable, so ties keep the elder plans
+            elites.sort(Comparator.comparingDouble(evals::get));
+            if (elites.size() > elitesCount) {
+                elites.subList(elitesCount, elites.size()).clear();
+            }
+            if (simulatedTicks >= budget) {
+                break;
+            }
+            generation = new ArrayList<>();
+            for (int attempt = 0; generation.size() < populationSize - elitesCount && attempt < 4 * populationSize; attempt++) {
+                Plan child = mutate(elites.get(random.nextInt(elites.size())), steps, random);
+                if (!evals.containsKey(child) && !generation.contains(child)) {
+                    generation.add(child);
+                }
+            }
+        }
+        return new Result(best, elites, simulatedTicks);
+    }
+
+    static Plan mutate(Plan parent, int steps, Random random) {
+        List<Integer> lengths = new ArrayList<>();
+        List<MoveAction> moves = new ArrayList<>();
+        for (int run = 0; run < parent.runsCount(); run++) {
+            lengths.add(parent.runLength(run));
+            moves.add(parent.runMove(run));
+        }
+        int i = random.nextInt(lengths.size());
+        switch (random.nextInt(4)) {
+            case 0: {
+                // moves the end of the segment, the next one or the previous one makes up for it
+                int delta = (random.nextBoolean() ? 1 : -1) * (1 + random.nextInt(4));
+                int j = i + 1 < lengths.size() ? i + 1 : i - 1;
+                if (j >= 0) {
+                    delta = Math.max(-lengths.get(i), Math.min(lengths.get(j), delta));
+                    lengths.set(i, lengths.get(i) + delta);
+                    lengths.set(j, lengths.get(j) - delta);
+                }
+                break;
+            }
+            case 1:
+                moves.set(i, MOVES[random.nextInt(MOVES.length)]);
+                break;
+            case 2:
+                if (lengths.get(i) > 1) {
+                    int head = 1 + random.nextInt(lengths.get(i) - 1);
+                    lengths.add(i + 1, lengths.get(i) - head);
+                    moves.add(i + 1, MOVES[random.nextInt(MOVES.length)]);
+                    lengths.set(i, head);
+                }
+                break;
+            default:
+                if (lengths.size() > 1) {
+                    int j = i + 1 < lengths.size() ? i + 1 : i - 1;
+                    lengths.set(j, lengths.get(j) + lengths.get(i));
+                    lengths.remove(i);
+                    moves.remove(i);
+                }
+        }
+        Plan child = new Plan();
+        for (int k = 0; k < lengths.size(); k++) {
+            child.add(lengths.get(k), moves.get(k));
+        }
+        child.add(steps - child.size(), moves.get(moves.size() - 1));
+        return child;
+    }
+
+    private static MoveAction[] moves() {
+        List<MoveAction> moves = new ArrayList<>();
+        for (double speed : new double[]{-SPEED, 0, SPEED}) {
+            moves.add(MoveAction.of(speed, false, false));
+            moves.add(MoveAction.of(speed, true, false));
+            moves.add(MoveAction.of(speed, false, true));
+        }
+        return moves.toArray(new MoveAction[0]);
+    }
+}
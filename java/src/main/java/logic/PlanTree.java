@@ -0,0 +1,83 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// candidate plans merged by common prefix, so every shared prefix is simulated once
+public class PlanTree {
+    private final Node root = new Node(null);
+    private int plansCount;
+    private int nodesCount;
+
+    public PlanTree(Collection<Plan> plans) {
+        for (Plan plan : plans) {
+            add(plan);
+        }
+    }
+
+    public void add(Plan plan) {
+        Node node = root;
+        for (int run = 0; run < plan.runsCount(); run++) {
+            MoveAction move = plan.runMove(run);
+            for (int i = 0; i < plan.runLength(run); i++) {
+                node = node.child(move);
+            }
+        }
+        node.plans.add(plan);
+        node.indexes.add(plansCount++);
+    }
+
+    public int size() {
+        return plansCount;
+    }
+
+    // ticks simulated by search, compared to size() * plan length for simulating plans one by one
+    public int simulatedTicks() {
+        return nodesCount;
+    }
+
+    public void search(Simulator simulator, UnitState start, TrajectoryBuffer states, Visitor visitor) {
+        states.start(start);
+        search(root, 0, simulator, states, visitor);
+    }
+
+    private void search(Node node, int depth, Simulator simulator, TrajectoryBuffer states, Visitor visitor) {
+        for (int i = 0; i < node.plans.size(); i++) {
+            states.truncate(depth);
+            visitor.visit(node.plans.get(i), node.indexes.get(i), states);
+        }
+        for (Node child : node.children) {
+            simulator.simulateTick(child.move, states, depth);
+            search(child, depth + 1, simulator, states, visitor);
+        }
+    }
+
+    public interface Visitor {
+        // index is the position of the plan in the original collection
+        void visit(Plan plan, int index, TrajectoryBuffer states);
+    }
+
+    private class Node {
+        final MoveAction move;
+        final List<Node> children = new ArrayList<>(1);
+        final List<Plan> plans = new ArrayList<>(0);
+        final List<Integer> indexes = new ArrayList<>(0);
+
+        Node(MoveAction move) {
+            this.move = move;
+        }
+
+        Node child(MoveAction move) {
+            for (Node child : children) {
+                if (child.move.equals(move)) {
+                    return child;
+                }
+            }
+            Node child = new Node(move);
+            children.add(child);
+            nodesCount++;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package logic;
+
+import java.util.*;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.round;
+import static logic.Simulator.JUMP_DURATION;
+import static logic.Simulator.SPEED;
+
+// how many ticks it takes to get from one stable point to another. Edges come from simulating
+// primitive moves (walking, jumps of several heights, dropping down, each with any horizontal
+// direction) from every stable point until the unit lands somewhere or has walked for a quarter
+// of a second, and recording the stable points it stands on along the way
+public class ReachabilityGraph {
+    private static final double POSITION_EPS = 1e-6;
+
+    private final List<Point> nodes;
+    private final double delta, x0, y0;
+    private final int gridWidth, gridHeight;
+    private final int[] nodeAt;
+    // reversed edges in compressed form: the edges into node n are [edgeStart[n], edgeStart[n + 1])
+    private final int[] edgeStart, edgeFrom;
+    private final double[] edgeTicks;
+    private final double tickSpeed;
+    private final DistanceFields cells;
+    private final LinkedHashMap<Long, int[]> fields;
+
+    public ReachabilityGraph(List<Point> stablePoints, double delta, Simulator simulator, DistanceFields cells, int capacity) {
+        this.nodes = stablePoints;
+        this.delta = delta;
+        this.tickSpeed = simulator.tickSpeed;
+        this.cells = cells;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (Point p : stablePoints) {
+            minX = Math.min(minX, p.x);
+            minY = Math.min(minY, p.y);
+            maxX = Math.max(maxX, p.x);
+            maxY = Math.max(maxY, p.y);
+        }
+        x0 = minX;
+        y0 = minY;
+        gridWidth = stablePoints.isEmpty() ? 0 : (int) round((maxX - minX) / delta) + 1;
+        gridHeight = stablePoints.isEmpty() ? 0 : (int) round((maxY - minY) / delta) + 1;
+        nodeAt = new int[gridWidth * gridHeight];
+        Arrays.fill(nodeAt, -1);
+        for (int i = 0; i < stablePoints.size(); i++) {
+            Point p = stablePoints.get(i);
+            nodeAt[gridX(p.x) * gridHeight + gridY(p.y)] = i;
+        }
+
+        EdgeList edges = buildEdges(simulator);
+        edgeStart = new int[nodes.size() + 1];
+        edgeFrom = new int[edges.size];
+        edgeTicks = new double[edges.size];
+        for (int e = 0; e < edges.size; e++) {
+            edgeStart[edges.to[e] + 1]++;
+        }
+        for (int n = 0; n < nodes.size(); n++) {
+            edgeStart[n + 1] += edgeStart[n];
+        }
+        int[] filled = Arrays.copyOf(edgeStart, nodes.size());
+        for (int e = 0; e < edges.size; e++) {
+            int slot = filled[edges.to[e]]++;
+            edgeFrom[slot] = edges.from[e];
+            edgeTicks[slot] = edges.ticks[e];
+        }
+
+        fields = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private EdgeList buildEdges(Simulator simulator) {
+        // long enough for the highest jump to land back on the floor it started from
+        int horizon = (int) round(2 / simulator.tickDuration);
+        int walkHorizon = horizon / 8;
+        int maxJumpTicks = (int) (JUMP_DURATION / simulator.tickDuration);
+        List<Plan> plans = new ArrayList<>();
+        for (double speed : new double[]{-SPEED, 0, SPEED}) {
+            if (speed != 0) {
+                plans.add(Plan.plan(horizon, speed, false, false));
+            }
+            plans.add(Plan.plan(horizon, speed, false, true));
+            // the jump is let go once it is over, as holding it on landing would jump again at once
+            plans.add(Plan.plan(maxJumpTicks + 1, speed, true, false).add(horizon - maxJumpTicks - 1, speed, false, false));
+            for (int jumpTicks = maxJumpTicks / 3; jumpTicks > 0 && jumpTicks < maxJumpTicks; jumpTicks += maxJumpTicks / 3) {
+                plans.add(Plan.plan(jumpTicks, speed, true, false).add(horizon - jumpTicks, speed, false, false));
+            }
+        }
+
+        EdgeList edges = new EdgeList();
+        double[] bestTicks = new double[nodes.size()];
+        Arrays.fill(bestTicks, Double.POSITIVE_INFINITY);
+        List<Integer> touched = new ArrayList<>();
+        TrajectoryBuffer states = new TrajectoryBuffer(horizon);
+        for (int from = 0; from < nodes.size(); from++) {
+            states.start(new UnitState(nodes.get(from), 0, false, false));
+            for (Plan plan : plans) {
+                boolean airborne = false;
+                for (int tick = 0; tick < plan.size(); tick++) {
+                    simulator.simulateTick(plan.get(tick), states, tick);
+                    // rising from the ground keeps both flags, only the jump time tells it from standing
+                    if (!states.canJump(tick) || !states.canCancel(tick) || states.remainingJumpTime(tick) != JUMP_DURATION) {
+                        airborne = true;
+                        continue;
+                    }
+                    int to = nodeAt(states.x(tick), states.y(tick));
+                    if (to >= 0 && to != from) {
+                        // the rest of the way to the exact stable point is walked
+                        double ticks = tick + 1 + abs(nodes.get(to).x - states.x(tick)) / tickSpeed;
+                        if (bestTicks[to] == Double.POSITIVE_INFINITY) {
+                            touched.add(to);
+                        }
+                        bestTicks[to] = Math.min(bestTicks[to], ticks);
+                    }
+                    // after landing or walking for a while the rest is covered by edges from other points;
+                    // jumps go on until they land
+                    if (airborne || tick + 1 >= walkHorizon) {
+                        break;
+                    }
+                }
+            }
+            for (int to : touched) {
+                edges.add(from, to, bestTicks[to]);
+                bestTicks[to] = Double.POSITIVE_INFINITY;
+            }
+            touched.clear();
+        }
+        return edges;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public int edges() {
+        return edgeFrom.length;
+    }
+
+    // index of the stable point at exactly this position, -1 if there is none
+    public int nodeAt(double x, double y) {
+        int gx = gridX(x);
+        int gy = gridY(y);
+        if (gx < 0 || gx >= gridWidth || gy < 0 || gy >= gridHeight || abs(y0 + gy * delta - y) > POSITION_EPS) {
+            return -1;
+        }
+        return nodeAt[gx * gridHeight + gy];
+    }
+
+    public int nearestNode(Point p) {
+        int best = -1;
+        double bestDist = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < nodes.size(); i++) {
+            double dist = Utils.dist(nodes.get(i), p);
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // ticks from every node to the target node, infinity where it is unreachable
+    public double[] ticksTo(int target) {
+        double[] ticks = new double[nodes.size()];
+        Arrays.fill(ticks, Double.POSITIVE_INFINITY);
+        ticks[target] = 0;
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Comparator.comparingDouble(n -> ticks[n]));
+        boolean[] done = new boolean[nodes.size()];
+        queue.add(target);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            if (done[node]) {
+                continue;
+            }
+            done[node] = true;
+            for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                int from = edgeFrom[e];
+                double t = ticks[node] + edgeTicks[e];
+                if (t < ticks[from]) {
+                    ticks[from] = t;
+                    queue.add(from);
+                }
+            }
+        }
+        return ticks;
+    }
+
+    // a replacement for the BFS field towards target in the same units (cells): cells with stable
+    // points get the time to reach the target from the best of them converted to distance, and the
+    // rest of the level is filled by BFS from those
+    public synchronized int[] field(Point target) {
+        int targetNode = nearestNode(target);
+        if (targetNode < 0) {
+            return cells.get(target);
+        }
+        int targetCell = (int) target.x * cells.height + (int) target.y;
+        long key = (long) targetNode << 32 | targetCell;
+        int[] field = fields.get(key);
+        if (field == null) {
+            double[] ticks = ticksTo(targetNode);
+            int[] seeds = new int[cells.width * cells.height];
+            Arrays.fill(seeds, DistanceFields.INF);
+            for (int n = 0; n < nodes.size(); n++) {
+                if (ticks[n] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                Point p = nodes.get(n);
+                int cell = (int) p.x * cells.height + (int) p.y;
+                seeds[cell] = Math.min(seeds[cell], (int) round(ticks[n] * tickSpeed));
+            }
+            seeds[targetCell] = 0;
+            field = cells.spread(seeds);
+            fields.put(key, field);
+        }
+        return field;
+    }
+
+    private int gridX(double x) {
+        return (int) round((x - x0) / delta);
+    }
+
+    private int gridY(double y) {
+        return (int) round((y - y0) / delta);
+    }
+
+    private static class EdgeList {
+        int[] from = new int[1024], to = new int[1024];
+        double[] ticks = new double[1024];
+        int size;
+
+        void add(int from, int to, double ticks) {
+            if (size == this.from.length) {
+                this.from = Arrays.copyOf(this.from, size * 2);
+                this.to = Arrays.copyOf(this.to, size * 2);
+                this.ticks = Arrays.copyOf(this.ticks, size * 2);
+            }
+            this.from[size] = from;
+            this.to[size] = to;
+            this.ticks[size] = ticks;
+            size++;
+        }
+    }
+}
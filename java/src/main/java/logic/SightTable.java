@@ -0,0 +1,127 @@
+package logic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.Math.*;
+import static model.Tile.WALL;
+
+// line of sight for bullets between pairs of sub-tile cells. A pair is clear when no wall touches the
+// convex hull of the two cells grown by half the bullet size: then no position on any segment between
+// them can collide and the bullet doesn't need to be traced. Rows are kept per bullet size and source
+// cell as bitsets of checked and clear target cells, and filled only by traced bullets that fly
+// through: most lines are blocked, and for those the table can't say anything anyway
+public class SightTable {
+    // covers the drift of simulated bullet positions from the exact segment
+    private static final double MARGIN = 1e-6;
+
+    private final Simulator simulator;
+    private final CollisionMap map;
+    private final int resolution, width, height;
+    private final double cellSize;
+    // concurrent updates can only lose bits, which makes pairs unchecked or not clear, never wrongly clear
+    private final Map<Double, Rows> rows = new HashMap<>();
+    // there are only a few bullet sizes, and queries come in runs of the same one
+    private volatile Rows last;
+
+    // resolution is the number of cells per tile side
+    public SightTable(Simulator simulator, CollisionMap map, int resolution) {
+        this.simulator = simulator;
+        this.map = map;
+        this.resolution = resolution;
+        this.cellSize = 1.0 / resolution;
+        this.width = map.width * resolution;
+        this.height = map.height * resolution;
+    }
+
+    // the same as simulator.bulletFlies(start, speed, size, ticks)
+    public boolean flies(Point start, Point speed, double size, int ticks) {
+        double flight = ticks * simulator.tickDuration;
+        int a = cellOf(start.x, start.y);
+        int b = cellOf(start.x + speed.x * flight, start.y + speed.y * flight);
+        if (a < 0 || b < 0) {
+            return simulator.bulletFlies(start, speed, size, ticks);
+        }
+        Rows table = last;
+        if (table == null || table.size != size) {
+            table = rows(size);
+            last = table;
+        }
+        long[] row = table.rows[a];
+        int word = 2 * (b >>> 6);
+        long bit = 1L << b;
+        if (row != null && (row[word + 1] & bit) != 0) {
+            return true;
+        }
+        boolean flies = simulator.bulletFlies(start, speed, size, ticks);
+        if (flies && (row == null || (row[word] & bit) == 0)) {
+            if (row == null) {
+                row = new long[2 * ((width * height + 63) >>> 6)];
+                table.rows[a] = row;
+            }
+            if (clear(a / height, a % height, b / height, b % height, size / 2 + MARGIN)) {
+                row[word + 1] |= bit;
+            }
+            row[word] |= bit;
+        }
+        return flies;
+    }
+
+    private synchronized Rows rows(double size) {
+        return rows.computeIfAbsent(size, s -> new Rows(s, new long[width * height][]));
+    }
+
+    private int cellOf(double x, double y) {
+        int cx = (int) (x * resolution);
+        int cy = (int) (y * resolution);
+        if (x < 0 || y < 0 || cx >= width || cy >= height) {
+            return -1;
+        }
+        return cx * height + cy;
+    }
+
+    private boolean clear(int ax, int ay, int bx, int by, double pad) {
+        double minX = min(ax, bx) * cellSize - pad;
+        double maxX = (max(ax, bx) + 1) * cellSize + pad;
+        double minY = min(ay, by) * cellSize - pad;
+        double maxY = (max(ay, by) + 1) * cellSize + pad;
+        // the hull of two equal squares has, besides their sides, two edges along the direction
+        // between them: the band of its projection on their normal
+        double nx = -(by - ay);
+        double ny = bx - ax;
+        double halfWidth = (abs(nx) + abs(ny)) * (cellSize / 2 + pad);
+        double center = nx * (ax + 0.5) * cellSize + ny * (ay + 0.5) * cellSize;
+        int fromTileX = max(0, (int) floor(minX));
+        int toTileX = min(map.width - 1, (int) floor(maxX));
+        for (int x = fromTileX; x <= toTileX; x++) {
+            // the rows of the column the band passes through
+            double bandMinY = minY, bandMaxY = maxY;
+            if (ny != 0) {
+                double y1 = (center - halfWidth - nx * x) / ny;
+                double y2 = (center + halfWidth - nx * x) / ny;
+                double y3 = (center - halfWidth - nx * (x + 1)) / ny;
+                double y4 = (center + halfWidth - nx * (x + 1)) / ny;
+                bandMinY = max(minY, min(min(y1, y2), min(y3, y4)));
+                bandMaxY = min(maxY, max(max(y1, y2), max(y3, y4)));
+            }
+            int fromTileY = max(0, (int) floor(bandMinY));
+            int toTileY = min(map.height - 1, (int) floor(bandMaxY));
+            for (int y = fromTileY; y <= toTileY; y++) {
+                if (map.tileIs(x, y, WALL)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static class Rows {
+        final double size;
+        final long[][] rows;
+
+        Rows(double size, long[][] rows) {
+            this.size = size;
+            this.rows = rows;
+        }
+    }
+}
@@ -3,7 +3,6 @@ package logic;
 import model.Bullet;
 import model.Tile;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static java.lang.Math.*;
@@ -16,7 +15,7 @@ public class Simulator {
     public final static double HEIGHT = 1.8;
     private final static double EPS = 1e-9;
 
-    private static final double JUMP_DURATION = 0.55;
+    public static final double JUMP_DURATION = 0.55;
     private static final double JUMP_PAD_DURATION = 0.525;
 
     private final int ticksPerSecond;
@@ -26,10 +25,20 @@ public class Simulator {
     public final double tickSpeed;
     public final double tickDuration;
 
-    private final Tile[][] map;
+    private final CollisionMap map;
+    private final TransitionCache cache;
 
     public Simulator(Tile[][] map, int ticksPerSecond, int microticksPerTick) {
+        this(new CollisionMap(map), ticksPerSecond, microticksPerTick);
+    }
+
+    public Simulator(CollisionMap map, int ticksPerSecond, int microticksPerTick) {
+        this(map, ticksPerSecond, microticksPerTick, null);
+    }
+
+    public Simulator(CollisionMap map, int ticksPerSecond, int microticksPerTick, TransitionCache cache) {
         this.map = map;
+        this.cache = cache;
         this.ticksPerSecond = ticksPerSecond;
         this.microticksPerTick = microticksPerTick;
         microtickDuration = 1.0 / ticksPerSecond / microticksPerTick;
@@ -39,153 +48,217 @@ public class Simulator {
     }
 
     public List<UnitState> simulate(UnitState startState, Plan plan) {
-        UnitState curState = startState;
-        List<UnitState> r = new ArrayList<>();
+        return simulate(startState, plan, new TrajectoryBuffer(plan.size())).toStates();
+    }
+
+    public TrajectoryBuffer simulate(UnitState startState, Plan plan, TrajectoryBuffer out) {
+        out.start(startState);
         int tick = 0;
-        for (MoveAction move : plan.moves) {
-            int microtick = 0;
-            while (microtick < microticksPerTick) {
-                double newX = curState.position.x;
-                double newY = curState.position.y;
-                double remainingJumpTime = curState.remainingJumpTime;
-                boolean canJump = curState.canJump;
-                boolean canCancel = curState.canCancel;
-
-                newX += move.speed * microtickDuration;
-                if (unitCollidesWithWall(map, newX, newY)) {
-                    if (move.speed > 0) {
-                        newX = max(curState.position.x, (int) (newX + WIDTH / 2) - WIDTH / 2 - EPS);
-                    } else {
-                        newX = min(curState.position.x, (int) (newX - WIDTH / 2) + 1 + WIDTH / 2 + EPS);
-                    }
-                }
+        for (int run = 0; run < plan.runsCount(); run++) {
+            MoveAction move = plan.runMove(run);
+            for (int i = 0; i < plan.runLength(run); i++) {
+                simulateTick(move, out, tick++);
+            }
+        }
+        return out;
+    }
 
-                boolean canMoveDown = !unitIsStandingOnWall(newX, newY);
-                boolean wasOnLadder = onLadder(curState.position.x, curState.position.y);
-                boolean wasOnGround = isStanding(newX, newY) && canJump && !wasOnLadder;
-
-                if (canJump && !canCancel) {
-                    newY += microtickSpeed * 2;
-                    remainingJumpTime -= microtickDuration;
-                } else if (canMoveDown && move.jumpDown) {
-                    newY -= microtickSpeed;
-                } else if (canJump && move.jump) {
-                    newY += microtickSpeed;
-                    remainingJumpTime -= microtickDuration;
-                } else if (!wasOnGround && !wasOnLadder) {
-                    newY -= microtickSpeed;
-                    remainingJumpTime = 0;
-                    canJump = false;
-                    canCancel = false;
+    // same physics, but every run of equal moves is simulated as a whole: microticks are skipped
+    // from one event (tile boundary crossing, jump timer end) to the next even across tick ends,
+    // and the states at tick ends are interpolated, so the cost depends on events rather than on
+    // ticks * microticks
+    public TrajectoryBuffer simulateEvents(UnitState startState, Plan plan, TrajectoryBuffer out) {
+        out.start(startState);
+        int tick = 0;
+        for (int run = 0; run < plan.runsCount(); run++) {
+            simulateRun(plan.runMove(run), out, tick, plan.runLength(run));
+            tick += plan.runLength(run);
+        }
+        return out;
+    }
+
+    // reads the state before the tick from out and writes the state after it
+    public void simulateTick(MoveAction move, TrajectoryBuffer out, int tick) {
+        if (cache == null) {
+            simulateRun(move, out, tick, 1);
+        } else if (!cache.lookup(move, out, tick)) {
+            simulateRun(move, out, tick, 1);
+            cache.store(move, out, tick);
+        }
+    }
+
+    private void simulateRun(MoveAction move, TrajectoryBuffer out, int tick, int ticks) {
+        double curX = out.xs[tick];
+        double curY = out.ys[tick];
+        double curRemainingJumpTime = out.remainingJumpTimes[tick];
+        boolean curCanJump = out.canJumps[tick];
+        boolean curCanCancel = out.canCancels[tick];
+
+        // the move is the same for the whole run
+        double moveX = move.speed * microtickDuration;
+        boolean right = move.speed > 0;
+        int end = ticks * microticksPerTick;
+        int tickEnd = microticksPerTick;
+        int microtick = 0;
+        while (microtick < end) {
+            double newX = curX;
+            double newY = curY;
+            double remainingJumpTime = curRemainingJumpTime;
+            boolean canJump = curCanJump;
+            boolean canCancel = curCanCancel;
+
+            newX += moveX;
+            if (unitCollidesWithWall(map, newX, newY)) {
+                if (right) {
+                    newX = max(curX, (int) (newX + WIDTH / 2) - WIDTH / 2 - EPS);
                 } else {
-                    remainingJumpTime = 0;
-                    canJump = false;
-                    canCancel = false;
+                    newX = min(curX, (int) (newX - WIDTH / 2) + 1 + WIDTH / 2 + EPS);
                 }
+            }
 
-                boolean onGround = wasOnGround && isStanding(newX, newY);
-
-                if (unitCollidesWithWall(map, newX, newY) || platformOrLadderCollision(map, newX, newY, curState, move)) {
-                    if (newY > curState.position.y) {
-                        newY = max(curState.position.y, (int) (newY + HEIGHT) - HEIGHT - EPS);
-                        canJump = false;
-                        canCancel = false;
-                        remainingJumpTime = 0;
-                    } else {
-                        newY = min(curState.position.y, (int) newY + 1 + EPS);
-                        onGround = true;
-                    }
-                }
+            boolean canMoveDown = !unitIsStandingOnWall(newX, newY);
+            boolean wasOnLadder = onLadder(curX, curY);
+            boolean wasOnGround = isStanding(newX, newY) && canJump && !wasOnLadder;
 
-                if (onLadder(newX, newY)) {
-                    canJump = true;
-                    canCancel = true;
-                    remainingJumpTime = JUMP_DURATION;
-                } else if (unitCollidesWith(map, newX, newY, JUMP_PAD)) {
-                    remainingJumpTime = JUMP_PAD_DURATION;
-                    canJump = true;
-                    canCancel = false;
-                } else if (onGround) {
-                    canJump = true;
-                    canCancel = true;
-                    remainingJumpTime = JUMP_DURATION;
-                } else if (remainingJumpTime <= 0 || canCancel && move.jumpDown) {
+            if (canJump && !canCancel) {
+                newY += microtickSpeed * 2;
+                remainingJumpTime -= microtickDuration;
+            } else if (canMoveDown && move.jumpDown) {
+                newY -= microtickSpeed;
+            } else if (canJump && move.jump) {
+                newY += microtickSpeed;
+                remainingJumpTime -= microtickDuration;
+            } else if (!wasOnGround && !wasOnLadder) {
+                newY -= microtickSpeed;
+                remainingJumpTime = 0;
+                canJump = false;
+                canCancel = false;
+            } else {
+                remainingJumpTime = 0;
+                canJump = false;
+                canCancel = false;
+            }
+
+            boolean onGround = wasOnGround && isStanding(newX, newY);
+
+            if (unitCollidesWithWall(map, newX, newY) || platformOrLadderCollision(newX, newY, curY, move)) {
+                if (newY > curY) {
+                    newY = max(curY, (int) (newY + HEIGHT) - HEIGHT - EPS);
                     canJump = false;
                     canCancel = false;
                     remainingJumpTime = 0;
-                }
-
-                UnitState newState = new UnitState(new Point(newX, newY), remainingJumpTime, canJump, canCancel);
-                int microticksToSkip = calcMicroticksToSkip(curState, newState, microtick);
-                if (microticksToSkip > 0) {
-                    Point delta = newState.position.minus(curState.position);
-                    double dt = newState.remainingJumpTime - curState.remainingJumpTime;
-                    curState = new UnitState(
-                            newState.position.add(delta.mult(microticksToSkip)),
-                            newState.remainingJumpTime + dt * microticksToSkip,
-                            newState.canJump,
-                            newState.canCancel
-                    );
-                    microtick += microticksToSkip + 1;
                 } else {
-                    curState = newState;
-                    microtick++;
+                    newY = min(curY, (int) newY + 1 + EPS);
+                    onGround = true;
                 }
             }
-            r.add(curState);
-            tick++;
+
+            if (onLadder(newX, newY)) {
+                canJump = true;
+                canCancel = true;
+                remainingJumpTime = JUMP_DURATION;
+            } else if (unitCollidesWith(map, newX, newY, JUMP_PAD)) {
+                remainingJumpTime = JUMP_PAD_DURATION;
+                canJump = true;
+                canCancel = false;
+            } else if (onGround) {
+                canJump = true;
+                canCancel = true;
+                remainingJumpTime = JUMP_DURATION;
+            } else if (remainingJumpTime <= 0 || canCancel && move.jumpDown) {
+                canJump = false;
+                canCancel = false;
+                remainingJumpTime = 0;
+            }
+
+            int microticksToSkip = calcMicroticksToSkip(
+                    curX, curY, curRemainingJumpTime, curCanJump, curCanCancel,
+                    newX, newY, remainingJumpTime, canJump, canCancel,
+                    end - microtick - 1
+            );
+            int reached = microtick + 1 + microticksToSkip;
+            while (tickEnd < reached) {
+                int k = tickEnd - microtick - 1;
+                out.set(
+                        tick + tickEnd / microticksPerTick - 1,
+                        newX + (newX - curX) * k,
+                        newY + (newY - curY) * k,
+                        remainingJumpTime + (remainingJumpTime - curRemainingJumpTime) * k,
+                        canJump,
+                        canCancel
+                );
+                tickEnd += microticksPerTick;
+            }
+            if (microticksToSkip > 0) {
+                curX = newX + (newX - curX) * microticksToSkip;
+                curY = newY + (newY - curY) * microticksToSkip;
+                curRemainingJumpTime = remainingJumpTime + (remainingJumpTime - curRemainingJumpTime) * microticksToSkip;
+                microtick += microticksToSkip + 1;
+            } else {
+                curX = newX;
+                curY = newY;
+                curRemainingJumpTime = remainingJumpTime;
+                microtick++;
+            }
+            curCanJump = canJump;
+            curCanCancel = canCancel;
+            if (microtick == tickEnd) {
+                out.set(tick + tickEnd / microticksPerTick - 1, curX, curY, curRemainingJumpTime, curCanJump, curCanCancel);
+                tickEnd += microticksPerTick;
+            }
         }
-        return r;
     }
 
-    private int calcMicroticksToSkip(UnitState curState, UnitState newState, int microtick) {
-        if (curState.canJump != newState.canJump ||
-                curState.canCancel != newState.canCancel ||
-                newState.remainingJumpTime > curState.remainingJumpTime
+    private int calcMicroticksToSkip(
+            double fromX, double fromY, double fromRemainingJumpTime, boolean fromCanJump, boolean fromCanCancel,
+            double toX, double toY, double toRemainingJumpTime, boolean toCanJump, boolean toCanCancel,
+            int limit
+    ) {
+        if (fromCanJump != toCanJump ||
+                fromCanCancel != toCanCancel ||
+                toRemainingJumpTime > fromRemainingJumpTime
         ) {
             return 0;
         }
-        int r = max(0, microticksPerTick - microtick - 1);
-        Point from = curState.position;
-        Point to = newState.position;
-        if (!sameInt(from.x, to.x, 0) ||
-                !sameInt(from.x, to.x, WIDTH / 2) ||
-                !sameInt(from.x, to.x, -WIDTH / 2) ||
-                !sameInt(from.y, to.y, 0) ||
-                !sameInt(from.y, to.y, HEIGHT) ||
-                !sameInt(from.y, to.y, HEIGHT / 2)
+        int r = max(0, limit);
+        if (!sameInt(fromX, toX, 0) ||
+                !sameInt(fromX, toX, WIDTH / 2) ||
+                !sameInt(fromX, toX, -WIDTH / 2) ||
+                !sameInt(fromY, toY, 0) ||
+                !sameInt(fromY, toY, HEIGHT) ||
+                !sameInt(fromY, toY, HEIGHT / 2)
         ) {
             return 0;
         }
-        double dx = to.x - from.x;
-        double dy = to.y - from.y;
+        double dx = toX - fromX;
+        double dy = toY - fromY;
         if (dx > 0) {
-            r = min(r, remainingTicks(1 - to.x % 1, dx));
-            r = min(r, remainingTicks(1 - (to.x - WIDTH / 2) % 1, dx));
-            r = min(r, remainingTicks(1 - (to.x + WIDTH / 2) % 1, dx));
+            r = min(r, remainingTicks(r, 1 - toX % 1, dx));
+            r = min(r, remainingTicks(r, 1 - (toX - WIDTH / 2) % 1, dx));
+            r = min(r, remainingTicks(r, 1 - (toX + WIDTH / 2) % 1, dx));
         } else if (dx < 0) {
-            r = min(r, remainingTicks(to.x % 1, dx));
-            r = min(r, remainingTicks((to.x - WIDTH / 2) % 1, dx));
-            r = min(r, remainingTicks((to.x + WIDTH / 2) % 1, dx));
+            r = min(r, remainingTicks(r, toX % 1, dx));
+            r = min(r, remainingTicks(r, (toX - WIDTH / 2) % 1, dx));
+            r = min(r, remainingTicks(r, (toX + WIDTH / 2) % 1, dx));
         }
         if (dy > 0) {
-            r = min(r, remainingTicks(1 - to.y % 1, dy));
-            r = min(r, remainingTicks(1 - (to.y + HEIGHT) % 1, dy));
-            r = min(r, remainingTicks(1 - (to.y + HEIGHT / 2) % 1, dy));
+            r = min(r, remainingTicks(r, 1 - toY % 1, dy));
+            r = min(r, remainingTicks(r, 1 - (toY + HEIGHT) % 1, dy));
+            r = min(r, remainingTicks(r, 1 - (toY + HEIGHT / 2) % 1, dy));
         } else if (dy < 0) {
-            r = min(r, remainingTicks(to.y % 1, dy));
-            r = min(r, remainingTicks((to.y + HEIGHT) % 1, dy));
-            r = min(r, remainingTicks((to.y + HEIGHT / 2) % 1, dy));
+            r = min(r, remainingTicks(r, toY % 1, dy));
+            r = min(r, remainingTicks(r, (toY + HEIGHT) % 1, dy));
+            r = min(r, remainingTicks(r, (toY + HEIGHT / 2) % 1, dy));
         }
-        double dt = newState.remainingJumpTime - curState.remainingJumpTime;
+        double dt = toRemainingJumpTime - fromRemainingJumpTime;
         if (dt < 0) {
-            r = min(r, remainingTicks(curState.remainingJumpTime, dt));
+            r = min(r, remainingTicks(r, fromRemainingJumpTime, dt));
         }
         return r;
     }
 
-    private int remainingTicks(double remDist, double delta) {
-        int remTicks = (int) min(remDist / abs(delta), microticksPerTick);
+    private int remainingTicks(int limit, double remDist, double delta) {
+        int remTicks = (int) min(remDist / abs(delta), limit + 1);
         return max(0, remTicks - 1);
     }
 
@@ -193,20 +266,18 @@ public class Simulator {
         return (int) (a + delta) == (int) (b + delta);
     }
 
-    private boolean platformOrLadderCollision(Tile[][] map, double newX, double newY, UnitState curState, MoveAction move) {
+    private boolean platformOrLadderCollision(double newX, double newY, double curY, MoveAction move) {
         if (move.jumpDown) {
             return false;
         }
-        if ((int) newY >= (int) curState.position.y) {
+        if ((int) newY >= (int) curY) {
             return false;
         }
-        return tileAtPoint(map, newX - WIDTH / 2, newY) == PLATFORM
-                || tileAtPoint(map, newX + WIDTH / 2, newY) == PLATFORM
-                || tileAtPoint(map, newX, newY) == LADDER;
+        return map.platformOrLadderAt(newX, newY);
     }
 
     private boolean onLadder(double x, double y) {
-        return tileAtPoint(map, x, y) == LADDER || tileAtPoint(map, x, y + HEIGHT / 2) == LADDER;
+        return map.onLadder(x, y);
     }
 
     public double clampSpeed(double speed) {
@@ -220,30 +291,11 @@ public class Simulator {
     }
 
     private boolean isStanding(double px, double py) {
-        return pointIsStanding(px - WIDTH / 2, py, false)
-                || pointIsStanding(px + WIDTH / 2, py, false)
-                || pointIsStanding(px, py, true);
+        return map.isStanding(px, py);
     }
 
     private boolean unitIsStandingOnWall(double px, double py) {
-        return pointIsStandingOnWall(px - WIDTH / 2, py) && pointIsStandingOnWall(px + WIDTH / 2, py);
-    }
-
-    private boolean pointIsStandingOnWall(double px, double py) {
-        int x = (int) px;
-        int y = (int) py;
-        Tile below = map[x][y - 1];
-        return (below == WALL) && abs(py - (int) py) < 1e-9;
-    }
-
-    private boolean pointIsStanding(double px, double py, boolean allowLadder) {
-        int x = (int) px;
-        int y = (int) py;
-        if (y == 0) {
-            return true;
-        }
-        Tile below = map[x][y - 1];
-        return (below == PLATFORM || below == WALL || allowLadder && below == LADDER) && abs(py - (int) py) < 1e-8;
+        return map.isStandingOnWall(px, py);
     }
 
     public double toTickSpeed(double speed) {
@@ -264,44 +316,108 @@ public class Simulator {
     }
 
     public BulletTrajectory simulateBullet(Point start, Point speed, double size, int maxTicks) {
-        Point curPos = start;
-        Point tickSpeed = speed.mult(tickDuration);
-        Point microtickSpeed = speed.mult(microtickDuration);
-        Point collisionPos = null;
-        List<Point> r = new ArrayList<>();
-        for (int i = 0; i < maxTicks; i++) {
-            Point newPos = curPos.add(tickSpeed);
-            if (bulletCollidesWithWall(map, newPos, size)) {
-                collisionPos = newPos;
-                break;
+        double tickX = speed.x * tickDuration;
+        double tickY = speed.y * tickDuration;
+        double contact = wallContactTime(start.x, start.y, tickX, tickY, size / 2, maxTicks);
+        if (contact == Double.POSITIVE_INFINITY) {
+            return new BulletTrajectory(start, tickX, tickY, maxTicks, null, size);
+        }
+        Point collisionPos = new Point(start.x + tickX * contact, start.y + tickY * contact);
+        return new BulletTrajectory(start, tickX, tickY, max(0, (int) ceil(contact) - 1), collisionPos, size);
+    }
+
+    // whether simulateBullet(start, speed, size, ticks) flies all the ticks, without building the trajectory
+    public boolean bulletFlies(Point start, Point speed, double size, int ticks) {
+        return wallContactTime(start.x, start.y, speed.x * tickDuration, speed.y * tickDuration, size / 2, ticks) ==
+                Double.POSITIVE_INFINITY;
+    }
+
+    // the first time in ticks, at most limit, when a box with half size h at (x, y) moving by (vx, vy)
+    // per tick touches a wall, infinity if it doesn't. Walks the grid lines crossed by the leading sides
+    // of the box, checking the tiles of each newly entered column or row
+    private double wallContactTime(double x, double y, double vx, double vy, double h, double limit) {
+        int left = (int) floor(x - h);
+        int right = (int) ceil(x + h) - 1;
+        int bottom = (int) floor(y - h);
+        int top = (int) ceil(y + h) - 1;
+        for (int cx = left; cx <= right; cx++) {
+            for (int cy = bottom; cy <= top; cy++) {
+                if (wallAt(cx, cy)) {
+                    return 0;
+                }
             }
-            if (collidesWithWallMicroticks(curPos, newPos, size, microtickSpeed)) {
-                collisionPos = newPos; // wrong
-                break;
+        }
+        int nextColumn = vx > 0 ? right + 1 : left - 1;
+        int nextRow = vy > 0 ? top + 1 : bottom - 1;
+        double columnTime = entryTime(nextColumn, x, vx, h);
+        double rowTime = entryTime(nextRow, y, vy, h);
+        while (true) {
+            double t = min(columnTime, rowTime);
+            if (t > limit) {
+                return Double.POSITIVE_INFINITY;
+            }
+            boolean newColumn = columnTime <= rowTime;
+            boolean newRow = rowTime <= columnTime;
+            // the leading sides enter new lines, the trailing sides may leave some
+            double cx = x + vx * t;
+            double cy = y + vy * t;
+            if (newColumn) {
+                if (vx > 0) {
+                    right = nextColumn;
+                } else {
+                    left = nextColumn;
+                }
+            }
+            if (newRow) {
+                if (vy > 0) {
+                    top = nextRow;
+                } else {
+                    bottom = nextRow;
+                }
+            }
+            if (vx > 0) {
+                left = max(left, (int) floor(cx - h));
+            } else if (vx < 0) {
+                right = min(right, (int) ceil(cx + h) - 1);
+            }
+            if (vy > 0) {
+                bottom = max(bottom, (int) floor(cy - h));
+            } else if (vy < 0) {
+                top = min(top, (int) ceil(cy + h) - 1);
+            }
+            if (newColumn) {
+                for (int row = bottom; row <= top; row++) {
+                    if (wallAt(nextColumn, row)) {
+                        return t;
+                    }
+                }
+                nextColumn += vx > 0 ? 1 : -1;
+                columnTime = entryTime(nextColumn, x, vx, h);
+            }
+            if (newRow) {
+                for (int column = left; column <= right; column++) {
+                    if (wallAt(column, nextRow)) {
+                        return t;
+                    }
+                }
+                nextRow += vy > 0 ? 1 : -1;
+                rowTime = entryTime(nextRow, y, vy, h);
             }
-            r.add(newPos);
-            curPos = newPos;
         }
-        return new BulletTrajectory(r, collisionPos, size);
     }
 
-    private boolean collidesWithWallMicroticks(Point curPos, Point newPos, double size, Point microtickSpeed) {
-        int curCx = (int) curPos.x;
-        int newCx = (int) newPos.x;
-        int curCy = (int) curPos.y;
-        int newCy = (int) newPos.y;
-        if (curCx == newCx || curCy == newCy) {
-            return false;
+    // when a segment [p - h, p + h] moving by v per tick starts overlapping [line, line + 1]
+    private static double entryTime(int line, double p, double v, double h) {
+        if (v > 0) {
+            return (line - (p + h)) / v;
         }
-        if (tileAtPoint(map, curCx, newCy) != WALL && tileAtPoint(map, newCx, curCy) != WALL) {
-            return false;
+        if (v < 0) {
+            return (line + 1 - (p - h)) / v;
         }
-        for (int i = 0; i < microticksPerTick; i++) {
-            curPos = curPos.add(microtickSpeed);
-            if (bulletCollidesWithWall(map, curPos, size)) {
-                return true;
-            }
-        }
-        return false;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private boolean wallAt(int x, int y) {
+        return x < 0 || y < 0 || x >= map.width || y >= map.height || map.tileIs(x, y, WALL);
     }
 }
@@ -0,0 +1,132 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.round;
+import static logic.Simulator.HEIGHT;
+import static logic.Simulator.WIDTH;
+import static logic.Utils.unitCollidesWithWall;
+
+// stable points bucketed by level cell, with the bounding box of each bucket, so that searches over
+// the points can skip whole cells that can't contain anything better than what was found already
+public class StablePointIndex {
+    public final List<Point> points;
+    private final int height;
+    private final int[] cells;
+    // the points of cells[i] are order[start[i]], ..., order[start[i + 1] - 1], in increasing index order
+    private final int[] start, order;
+    private final double[] minX, maxX, minY, maxY;
+
+    public StablePointIndex(List<Point> points, int width, int height) {
+        this.points = points;
+        this.height = height;
+        int[] count = new int[width * height];
+        for (Point p : points) {
+            count[cellOf(p)]++;
+        }
+        int nonEmpty = 0;
+        for (int c : count) {
+            if (c > 0) {
+                nonEmpty++;
+            }
+        }
+        cells = new int[nonEmpty];
+        start = new int[nonEmpty + 1];
+        int[] bucketOf = new int[width * height];
+        for (int cell = 0, i = 0; cell < count.length; cell++) {
+            if (count[cell] > 0) {
+                cells[i] = cell;
+                start[i + 1] = start[i] + count[cell];
+                bucketOf[cell] = i++;
+            }
+        }
+        order = new int[points.size()];
+        int[] filled = Arrays.copyOf(start, nonEmpty);
+        minX = new double[nonEmpty];
+        maxX = new double[nonEmpty];
+        minY = new double[nonEmpty];
+        maxY = new double[nonEmpty];
+        Arrays.fill(minX, Double.POSITIVE_INFINITY);
+        Arrays.fill(minY, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxX, Double.NEGATIVE_INFINITY);
+        Arrays.fill(maxY, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < points.size(); i++) {
+            Point p = points.get(i);
+            int bucket = bucketOf[cellOf(p)];
+            order[filled[bucket]++] = i;
+            minX[bucket] = Math.min(minX[bucket], p.x);
+            maxX[bucket] = Math.max(maxX[bucket], p.x);
+            minY[bucket] = Math.min(minY[bucket], p.y);
+            maxY[bucket] = Math.max(maxY[bucket], p.y);
+        }
+    }
+
+    // the points of a grid with the given step where a unit standing still stays put
+    public static List<Point> findStablePoints(CollisionMap map, Simulator simulator, double delta) {
+        List<Point> r = new ArrayList<>();
+        for (double x = 1 + WIDTH / 2; x < map.width - 1 - WIDTH / 2; x = roundIfClose(x + delta)) {
+            for (double y = 1; y < map.height - 1 - HEIGHT; y = roundIfClose(y + delta)) {
+                if (isStable(map, simulator, x, y)) {
+                    r.add(new Point(x, y));
+                }
+            }
+        }
+        return r;
+    }
+
+    private static double roundIfClose(double v) {
+        if (abs(v - round(v)) < 1e-9) {
+            return round(v);
+        }
+        return v;
+    }
+
+    private static boolean isStable(CollisionMap map, Simulator simulator, double x, double y) {
+        if (unitCollidesWithWall(map, x, y)) {
+            return false;
+        }
+        TrajectoryBuffer states = simulator.simulate(
+                new UnitState(new Point(x, y), 0, false, false), Plan.plan(1, 0, false, false), new TrajectoryBuffer(1)
+        );
+        return abs(states.x(0) - x) < 1e-10 && abs(states.y(0) - y) < 1e-10;
+    }
+
+    public int buckets() {
+        return cells.length;
+    }
+
+    public int bucketStart(int bucket) {
+        return start[bucket];
+    }
+
+    public int bucketEnd(int bucket) {
+        return start[bucket + 1];
+    }
+
+    // index in points of the i-th point of all buckets
+    public int point(int i) {
+        return order[i];
+    }
+
+    public double minX(int bucket) {
+        return minX[bucket];
+    }
+
+    public double maxX(int bucket) {
+        return maxX[bucket];
+    }
+
+    // an upper bound of the distance from (x, y) to the points of the bucket shifted by (0, dy)
+    public double maxDist(int bucket, double x, double y, double dy) {
+        double dx = Math.max(Math.abs(minX[bucket] - x), Math.abs(maxX[bucket] - x));
+        double dyMax = Math.max(Math.abs(minY[bucket] + dy - y), Math.abs(maxY[bucket] + dy - y));
+        return Math.sqrt(dx * dx + dyMax * dyMax) + 1e-9;
+    }
+
+    private int cellOf(Point p) {
+        return (int) p.x * height + (int) p.y;
+    }
+}
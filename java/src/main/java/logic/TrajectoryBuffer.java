@@ -0,0 +1,102 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// slot 0 holds the start state, slot i + 1 holds the state after tick i
+public class TrajectoryBuffer {
+    double[] xs, ys, remainingJumpTimes;
+    boolean[] canJumps, canCancels;
+    private int size;
+
+    public TrajectoryBuffer(int capacity) {
+        xs = new double[capacity + 1];
+        ys = new double[capacity + 1];
+        remainingJumpTimes = new double[capacity + 1];
+        canJumps = new boolean[capacity + 1];
+        canCancels = new boolean[capacity + 1];
+    }
+
+    public void start(UnitState state) {
+        start(state.position.x, state.position.y, state.remainingJumpTime, state.canJump, state.canCancel);
+    }
+
+    void start(double x, double y, double remainingJumpTime, boolean canJump, boolean canCancel) {
+        set(-1, x, y, remainingJumpTime, canJump, canCancel);
+        size = 0;
+    }
+
+    void set(int tick, double x, double y, double remainingJumpTime, boolean canJump, boolean canCancel) {
+        int slot = tick + 1;
+        ensureCapacity(slot + 1);
+        xs[slot] = x;
+        ys[slot] = y;
+        remainingJumpTimes[slot] = remainingJumpTime;
+        canJumps[slot] = canJump;
+        canCancels[slot] = canCancel;
+        size = tick + 1;
+    }
+
+    void truncate(int size) {
+        this.size = size;
+    }
+
+    public void copyFrom(TrajectoryBuffer other) {
+        ensureCapacity(other.size + 1);
+        System.arraycopy(other.xs, 0, xs, 0, other.size + 1);
+        System.arraycopy(other.ys, 0, ys, 0, other.size + 1);
+        System.arraycopy(other.remainingJumpTimes, 0, remainingJumpTimes, 0, other.size + 1);
+        System.arraycopy(other.canJumps, 0, canJumps, 0, other.size + 1);
+        System.arraycopy(other.canCancels, 0, canCancels, 0, other.size + 1);
+        size = other.size;
+    }
+
+    private void ensureCapacity(int slots) {
+        if (slots <= xs.length) {
+            return;
+        }
+        int newLength = Math.max(slots, xs.length * 2);
+        xs = Arrays.copyOf(xs, newLength);
+        ys = Arrays.copyOf(ys, newLength);
+        remainingJumpTimes = Arrays.copyOf(remainingJumpTimes, newLength);
+        canJumps = Arrays.copyOf(canJumps, newLength);
+        canCancels = Arrays.copyOf(canCancels, newLength);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double x(int tick) {
+        return xs[tick + 1];
+    }
+
+    public double y(int tick) {
+        return ys[tick + 1];
+    }
+
+    public double remainingJumpTime(int tick) {
+        return remainingJumpTimes[tick + 1];
+    }
+
+    public boolean canJump(int tick) {
+        return canJumps[tick + 1];
+    }
+
+    public boolean canCancel(int tick) {
+        return canCancels[tick + 1];
+    }
+
+    public UnitState get(int tick) {
+        return new UnitState(new Point(x(tick), y(tick)), remainingJumpTime(tick), canJump(tick), canCancel(tick));
+    }
+
+    public List<UnitState> toStates() {
+        List<UnitState> r = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            r.add(get(i));
+        }
+        return r;
+    }
+}
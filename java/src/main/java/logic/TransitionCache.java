@@ -0,0 +1,108 @@
+package logic;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// bounded LRUs of single tick transitions: exact start state (bit for bit) + move -> state after the tick,
+// both as packed states; states whose jump time can't be packed aren't cached. Shared between all simulations of a strategy, which may run in parallel, so every thread has its own
+// LRU of the given capacity and looks it up without locking
+public class TransitionCache {
+    private final int capacity;
+    private final ThreadLocal<Local> local = ThreadLocal.withInitial(Local::new);
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    public TransitionCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // writes the state after the tick into out if the transition from the state before it is known
+    boolean lookup(MoveAction move, TrajectoryBuffer out, int tick) {
+        Local local = this.local.get();
+        Transition t = PackedState.packable(out.remainingJumpTimes[tick])
+                ? local.transitions.get(local.probe.set(move, out, tick))
+                : null;
+        if (t == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        out.set(tick, PackedState.coordinate(t.x), PackedState.coordinate(t.y),
+                PackedState.remainingJumpTime(t.jump), PackedState.canJump(t.jump), PackedState.canCancel(t.jump));
+        return true;
+    }
+
+    void store(MoveAction move, TrajectoryBuffer out, int tick) {
+        if (PackedState.packable(out.remainingJumpTimes[tick]) && PackedState.packable(out.remainingJumpTimes[tick + 1])) {
+            local.get().transitions.put(new Key().set(move, out, tick), new Transition(out, tick + 1));
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    // transitions known to the calling thread
+    public int size() {
+        return local.get().transitions.size();
+    }
+
+    private class Local {
+        final LinkedHashMap<Key, Transition> transitions = new LinkedHashMap<Key, Transition>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Transition> eldest) {
+                return size() > capacity;
+            }
+        };
+        // reused for lookups, so that only stored transitions allocate keys
+        final Key probe = new Key();
+    }
+
+    private static class Key {
+        // the move by value, as moves of other speeds than the fixed ones aren't interned
+        long speed;
+        int kind;
+        long x, y, jump;
+        int hash;
+
+        Key set(MoveAction move, TrajectoryBuffer states, int slot) {
+            speed = Double.doubleToLongBits(move.speed);
+            kind = move.jump ? 1 : move.jumpDown ? 2 : 0;
+            x = PackedState.coordinate(states.xs[slot]);
+            y = PackedState.coordinate(states.ys[slot]);
+            jump = PackedState.jump(states.remainingJumpTimes[slot], states.canJumps[slot], states.canCancels[slot]);
+            hash = (PackedState.hash(x, y, jump) * 31 + Long.hashCode(speed)) * 3 + kind;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            Key that = (Key) o;
+            return hash == that.hash &&
+                    x == that.x &&
+                    y == that.y &&
+                    jump == that.jump &&
+                    speed == that.speed &&
+                    kind == that.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class Transition {
+        final long x, y, jump;
+
+        Transition(TrajectoryBuffer states, int slot) {
+            x = PackedState.coordinate(states.xs[slot]);
+            y = PackedState.coordinate(states.ys[slot]);
+            jump = PackedState.jump(states.remainingJumpTimes[slot], states.canJumps[slot], states.canCancels[slot]);
+        }
+    }
+}
@@ -69,6 +69,18 @@ public class Utils {
                 tileAtPoint(map, x + WIDTH / 2, y + HEIGHT / 2) == tile;
     }
 
+    public static boolean unitCollidesWithWall(CollisionMap map, double x, double y) {
+        return map.unitCollidesWith(x, y, WALL);
+    }
+
+    public static boolean unitCollidesWith(CollisionMap map, double x, double y, Tile tile) {
+        return map.unitCollidesWith(x, y, tile);
+    }
+
+    public static boolean bulletCollidesWithWall(CollisionMap map, Point p, double size) {
+        return map.bulletCollidesWithWall(p.x, p.y, size);
+    }
+
     public static boolean bulletCollidesWithWall(Tile[][] map, Point p, double size) {
         return tileAtPoint(map, p.x - size / 2, p.y - size / 2) == WALL ||
                 tileAtPoint(map, p.x - size / 2, p.y + size / 2) == WALL ||
@@ -105,6 +117,30 @@ public class Utils {
         }
     }
 
+    // distance between the unit standing at (myX, myY) and the square bullet centered at (bulletX, bulletY)
+    // along the axis where they are further apart, 0 if they intersect
+    public static double distToBullet(double myX, double myY, double bulletX, double bulletY, double size) {
+        return max(
+                segmentDist(myX - WIDTH / 2, myX + WIDTH / 2, bulletX - size / 2, bulletX + size / 2),
+                segmentDist(myY, myY + HEIGHT, bulletY - size / 2, bulletY + size / 2)
+        );
+    }
+
+    public static double segmentDist(double aLeft, double aRight, double bLeft, double bRight) {
+        // not negative exactly when the segments don't intersect
+        return max(0, max(aLeft - bRight, bLeft - aRight));
+    }
+
+    public static double danger(double minAllowedDist, double dist, int damage) {
+        if (dist == 0) {
+            return damage;
+        }
+        if (dist < minAllowedDist) {
+            return (1 - dist / minAllowedDist) * 2;
+        }
+        return 0;
+    }
+
     public static ColorFloat color(double r, double g, double b, double a) {
         return new ColorFloat((float) r, (float) g, (float) b, (float) a);
     }
@@ -1,5 +1,6 @@
 package model;
 
+import util.ProtocolInputStream;
 import util.StreamUtil;
 
 public class Level {
@@ -11,6 +12,12 @@ public class Level {
         this.tiles = tiles;
     }
     public static Level readFrom(java.io.InputStream stream) throws java.io.IOException {
+        if (stream instanceof ProtocolInputStream) {
+            return ((ProtocolInputStream) stream).readLevel();
+        }
+        return decode(stream);
+    }
+    public static Level decode(java.io.InputStream stream) throws java.io.IOException {
         Level result = new Level();
         result.tiles = new model.Tile[StreamUtil.readInt(stream)][];
         for (int i = 0; i < result.tiles.length; i++) {
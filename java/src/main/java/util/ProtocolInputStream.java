@@ -0,0 +1,164 @@
+package util;
+
+import model.Level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+// little endian reader over one reused buffer, refilled from a stream or a channel;
+// StreamUtil reads primitives straight from it instead of allocating per field
+public class ProtocolInputStream extends InputStream {
+    private static final int CAPACITY = 1 << 16;
+
+    private final InputStream stream;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private ByteBuffer levelBytes;
+    private Level level;
+
+    public ProtocolInputStream(InputStream stream) {
+        this(stream, null);
+    }
+
+    public ProtocolInputStream(ReadableByteChannel channel) {
+        this(null, channel);
+    }
+
+    private ProtocolInputStream(InputStream stream, ReadableByteChannel channel) {
+        this.stream = stream;
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+    }
+
+    public boolean readBoolean() throws IOException {
+        require(1);
+        return buffer.get() != 0;
+    }
+
+    public int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    public long readLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    public float readFloat() throws IOException {
+        require(Float.BYTES);
+        return buffer.getFloat();
+    }
+
+    public double readDouble() throws IOException {
+        require(Double.BYTES);
+        return buffer.getDouble();
+    }
+
+    public String readString() throws IOException {
+        int length = readInt();
+        if (length <= CAPACITY) {
+            require(length);
+            String r = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return r;
+        }
+        return new String(StreamUtil.readBytes(this, length), StandardCharsets.UTF_8);
+    }
+
+    // the server resends the same level every tick: while its raw bytes match the last decoded
+    // level they are skipped and that Level (and its Tile[][]) is returned again
+    public Level readLevel() throws IOException {
+        int length = Integer.BYTES;
+        require(length);
+        int width = buffer.getInt(buffer.position());
+        for (int i = 0; i < width; i++) {
+            if (length + Integer.BYTES > CAPACITY) {
+                return Level.decode(this);
+            }
+            require(length + Integer.BYTES);
+            length += Integer.BYTES * (1 + buffer.getInt(buffer.position() + length));
+        }
+        if (length > CAPACITY) {
+            return Level.decode(this);
+        }
+        require(length);
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.limit(bytes.position() + length);
+        if (level != null && bytes.equals(levelBytes)) {
+            buffer.position(bytes.limit());
+            return level;
+        }
+        levelBytes = ByteBuffer.allocate(length);
+        levelBytes.put(bytes).flip();
+        level = Level.decode(this);
+        return level;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!buffer.hasRemaining() && !refill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining() && !refill()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return buffer.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        } else {
+            stream.close();
+        }
+    }
+
+    private void require(int bytes) throws IOException {
+        while (buffer.remaining() < bytes) {
+            if (!refill()) {
+                throw new IOException("Unexpected EOF");
+            }
+        }
+    }
+
+    // moves the unread bytes to the front and reads whatever the source has after them
+    private boolean refill() throws IOException {
+        buffer.compact();
+        try {
+            int read;
+            if (channel != null) {
+                read = channel.read(buffer);
+            } else {
+                read = stream.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                if (read > 0) {
+                    buffer.position(buffer.position() + read);
+                }
+            }
+            return read > 0;
+        } finally {
+            buffer.flip();
+        }
+    }
+}
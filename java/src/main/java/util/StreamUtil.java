@@ -26,26 +26,44 @@ public class StreamUtil {
     }
 
     public static boolean readBoolean(InputStream stream) throws IOException {
+        if (stream instanceof ProtocolInputStream) {
+            return ((ProtocolInputStream) stream).readBoolean();
+        }
         return ByteBuffer.wrap(readBytes(stream, 1)).get() != 0;
     }
 
     public static int readInt(InputStream stream) throws IOException {
+        if (stream instanceof ProtocolInputStream) {
+            return ((ProtocolInputStream) stream).readInt();
+        }
         return ByteBuffer.wrap(readBytes(stream, Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN).getInt();
     }
 
     public static long readLong(InputStream stream) throws IOException {
+        if (stream instanceof ProtocolInputStream) {
+            return ((ProtocolInputStream) stream).readLong();
+        }
         return ByteBuffer.wrap(readBytes(stream, Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN).getLong();
     }
 
     public static float readFloat(InputStream stream) throws IOException {
+        if (stream instanceof ProtocolInputStream) {
+            return ((ProtocolInputStream) stream).readFloat();
+        }
         return ByteBuffer.wrap(readBytes(stream, Float.BYTES)).order(ByteOrder.LITTLE_ENDIAN).getFloat();
     }
 
     public static double readDouble(InputStream stream) throws IOException {
+        if (stream instanceof ProtocolInputStream) {
+            return ((ProtocolInputStream) stream).readDouble();
+        }
         return ByteBuffer.wrap(readBytes(stream, Double.BYTES)).order(ByteOrder.LITTLE_ENDIAN).getDouble();
     }
 
     public static String readString(InputStream stream) throws IOException {
+        if (stream instanceof ProtocolInputStream) {
+            return ((ProtocolInputStream) stream).readString();
+        }
         int length = readInt(stream);
         return new String(readBytes(stream, length), StandardCharsets.UTF_8);
     }
@@ -0,0 +1,63 @@
+package logic;
+
+import model.Bullet;
+import model.Vec2Double;
+import model.WeaponType;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class BulletTrackerTest {
+
+    @Test
+    void followsMovingBullets() {
+        StressTest.Scenario scenario = StressTest.scenarios().get(0);
+        Simulator simulator = new Simulator(scenario.map, 60, 100);
+        BulletTracker tracker = new BulletTracker(simulator, 100500);
+        Point start = scenario.start.position.add(new Point(0, 0.9));
+        Bullet a = bullet(1, start, new Point(50, 0));
+        Bullet b = bullet(2, start, new Point(30, 40));
+        tracker.update(new Bullet[]{a, b}, 10);
+        for (int tick = 11; tick < 14; tick++) {
+            move(a, simulator);
+            move(b, simulator);
+            List<BulletTrajectory> trajectories = tracker.update(new Bullet[]{b, a}, tick);
+            assertSameTrajectory(trajectories.get(0), simulator.simulateBullet(b, 100500));
+            assertSameTrajectory(trajectories.get(1), simulator.simulateBullet(a, 100500));
+        }
+        assertEquals(tracker.misses(), 2);
+        assertEquals(tracker.hits(), 6);
+
+        // gone bullets are forgotten, and a bullet not where it should be is traced anew
+        move(b, simulator);
+        tracker.update(new Bullet[]{b}, 14);
+        move(a, simulator);
+        move(b, simulator);
+        tracker.update(new Bullet[]{a, b}, 15);
+        assertEquals(tracker.misses(), 3);
+        assertEquals(tracker.hits(), 8);
+    }
+
+    private static Bullet bullet(int unitId, Point position, Point velocity) {
+        return new Bullet(WeaponType.ASSAULT_RIFLE, unitId, 1, new Vec2Double(position.x, position.y),
+                new Vec2Double(velocity.x, velocity.y), 5, 0.2, null);
+    }
+
+    private static void move(Bullet bullet, Simulator simulator) {
+        Vec2Double p = bullet.getPosition();
+        Vec2Double v = bullet.getVelocity();
+        bullet.setPosition(new Vec2Double(p.getX() + v.getX() * simulator.tickDuration, p.getY() + v.getY() * simulator.tickDuration));
+    }
+
+    private static void assertSameTrajectory(BulletTrajectory actual, BulletTrajectory expected) {
+        assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(actual.x(i), expected.x(i), 1e-9);
+            assertEquals(actual.y(i), expected.y(i), 1e-9);
+        }
+        assertEquals(actual.collisionPos.x, expected.collisionPos.x, 1e-9);
+        assertEquals(actual.collisionPos.y, expected.collisionPos.y, 1e-9);
+    }
+}
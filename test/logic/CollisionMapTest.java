@@ -0,0 +1,52 @@
+package logic;
+
+import model.Tile;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+
+public class CollisionMapTest {
+
+    @Test
+    void sameAsTileLookups() {
+        Tile[][] map = StressTest.scenarios().get(1).map;
+        check(map);
+        check(repeat(map, 3));
+    }
+
+    private void check(Tile[][] map) {
+        CollisionMap collisionMap = new CollisionMap(map);
+        Random rnd = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double x = 1 + rnd.nextDouble() * (map.length - 2);
+            double y = 1 + rnd.nextDouble() * (map[0].length - 2);
+            if (rnd.nextBoolean()) {
+                y = (int) y;
+            }
+            for (Tile tile : Tile.values()) {
+                assertEquals(collisionMap.tileIs(x, y, tile), Utils.tileAtPoint(map, x, y) == tile);
+            }
+            if (x > 1 && x < map.length - 1 && y + Simulator.HEIGHT < map[0].length - 1) {
+                for (Tile tile : Tile.values()) {
+                    assertEquals(collisionMap.unitCollidesWith(x, y, tile), Utils.unitCollidesWith(map, x, y, tile));
+                }
+            }
+            Point p = new Point(x, y);
+            assertEquals(collisionMap.bulletCollidesWithWall(x, y, 0.4), Utils.bulletCollidesWithWall(map, p, 0.4));
+        }
+    }
+
+    private static Tile[][] repeat(Tile[][] map, int times) {
+        int n = map.length;
+        int m = map[0].length;
+        Tile[][] r = new Tile[n * times][m * times];
+        for (int x = 0; x < n * times; x++) {
+            for (int y = 0; y < m * times; y++) {
+                r[x][y] = map[x % n][y % m];
+            }
+        }
+        return r;
+    }
+}
@@ -0,0 +1,74 @@
+package logic;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+public class DangerMapTest {
+
+    @Test
+    void neverMissesHits() {
+        Random random = new Random(42);
+        StressTest.Scenario scenario = StressTest.scenarios().get(0);
+        Simulator simulator = new Simulator(scenario.map, 60, 100);
+        int steps = 32;
+        for (int test = 0; test < 200; test++) {
+            DangerMap map = new DangerMap(scenario.map.length, scenario.map[0].length, 4, steps, 0.5);
+            BulletSnapshot snapshot = new BulletSnapshot(3, steps);
+            for (int b = 0; b < 3; b++) {
+                Point start = randomPoint(random);
+                Point speed = new Point(random.nextDouble() - 0.5, random.nextDouble() - 0.5).norm().mult(30);
+                BulletTrajectory trajectory = simulator.simulateBullet(start, speed, 0.2, 100500);
+                int owner = 1 + random.nextInt(2);
+                snapshot.add(trajectory, owner, false, 0.2, 10, null);
+                map.addBullet(trajectory, owner, false, 10, 0, 0);
+            }
+            // a unit walking in a straight line
+            TrajectoryBuffer states = new TrajectoryBuffer(steps);
+            Point p = randomPoint(random);
+            double vx = random.nextDouble() * 0.3 - 0.15, vy = random.nextDouble() * 0.3 - 0.15;
+            states.start(p.x, p.y, 0, false, false);
+            for (int i = 0; i < steps; i++) {
+                states.set(i, p.x + vx * (i + 1), p.y + vy * (i + 1), 0, false, false);
+            }
+            double exact = snapshot.danger(states, 2, 0.5);
+            double approximate = map.danger(states, 2);
+            // distances are decided on cells a bit larger than the unit, so each bullet scores at least as much
+            assertTrue(approximate >= exact - 1e-6, exact + " " + approximate);
+            if (approximate == 0) {
+                assertEquals(exact, 0.0);
+            }
+        }
+    }
+
+    @Test
+    void scoresHitsLikeTheSnapshot() {
+        StressTest.Scenario scenario = StressTest.scenarios().get(0);
+        Simulator simulator = new Simulator(scenario.map, 60, 100);
+        int steps = 32;
+        Point p = new Point(6, 5);
+        TrajectoryBuffer states = new TrajectoryBuffer(steps);
+        states.start(p.x, p.y, 0, false, false);
+        for (int i = 0; i < steps; i++) {
+            states.set(i, p.x, p.y, 0, false, false);
+        }
+        // passes close to the unit for a few ticks before hitting it
+        BulletTrajectory trajectory = simulator.simulateBullet(p.add(new Point(-3, 0.9)), new Point(30, 0), 0.2, 100500);
+        DangerMap map = new DangerMap(scenario.map.length, scenario.map[0].length, 4, steps, 0.5);
+        BulletSnapshot snapshot = new BulletSnapshot(1, steps);
+        map.addBullet(trajectory, 1, false, 10, 0, 0);
+        snapshot.add(trajectory, 1, false, 0.2, 10, null);
+
+        assertEquals(snapshot.danger(states, 2, 0.5), 10.0);
+        assertEquals(map.danger(states, 2), 10.0);
+        // own bullets don't hurt
+        assertEquals(snapshot.danger(states, 1, 0.5), 0.0);
+        assertEquals(map.danger(states, 1), 0.0);
+    }
+
+    private static Point randomPoint(Random random) {
+        return new Point(2 + random.nextDouble() * 8, 2 + random.nextDouble() * 8);
+    }
+}
@@ -0,0 +1,72 @@
+package logic;
+
+import model.Tile;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static model.Tile.WALL;
+import static org.testng.Assert.*;
+
+public class DistanceFieldsTest {
+
+    @Test
+    void sameAsGridBfs() {
+        for (StressTest.Scenario scenario : StressTest.scenarios()) {
+            Tile[][] map = scenario.map;
+            DistanceFields fields = new DistanceFields(map, 4);
+            for (int x = 1; x < map.length - 1; x += 3) {
+                for (int y = 1; y < map[0].length - 1; y += 2) {
+                    int[][] expected = bfs(map, x, y);
+                    int[] actual = fields.get(x, y);
+                    for (int i = 0; i < map.length; i++) {
+                        for (int j = 0; j < map[0].length; j++) {
+                            assertEquals(actual[i * fields.height + j], expected[i][j]);
+                        }
+                    }
+                }
+            }
+            assertEquals(fields.size(), 4);
+        }
+    }
+
+    @Test
+    void cachedPerTargetCell() {
+        DistanceFields fields = new DistanceFields(StressTest.scenarios().get(0).map, 2);
+        int[] a = fields.get(new Point(3.2, 2));
+        assertSame(fields.get(new Point(3.9, 2.5)), a);
+        fields.get(5, 2);
+        fields.get(6, 2);
+        assertNotSame(fields.get(3, 2), a);
+    }
+
+    private static int[][] bfs(Tile[][] map, int startX, int startY) {
+        int[][] dist = new int[map.length][map[0].length];
+        for (int[] column : dist) {
+            java.util.Arrays.fill(column, DistanceFields.INF);
+        }
+        Queue<Cell> q = new ArrayDeque<>();
+        q.add(new Cell(startX, startY));
+        dist[startX][startY] = 0;
+        while (!q.isEmpty()) {
+            Cell cur = q.remove();
+            for (Dir dir : Dir.dirs) {
+                int toX = cur.x + dir.dx;
+                int toY = cur.y + dir.dy;
+                if (toX < 0 || toX >= map.length || toY < 0 || toY >= map[0].length) {
+                    continue;
+                }
+                if (map[toX][toY] == WALL || map[toX][toY + 1] == WALL && map[toX][toY - 1] == WALL) {
+                    continue;
+                }
+                if (dist[toX][toY] != DistanceFields.INF) {
+                    continue;
+                }
+                dist[toX][toY] = dist[cur.x][cur.y] + 1;
+                q.add(new Cell(toX, toY));
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,54 @@
+package logic;
+
+import model.Tile;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.testng.Assert.*;
+
+public class DistanceTableTest {
+
+    @Test
+    void sameAsBfs() throws IOException {
+        Tile[][] map = StressTest.scenarios().get(1).map;
+        DistanceFields bfs = new DistanceFields(map, 0);
+        File dir = Files.createTempDirectory("distances").toFile();
+        DistanceTable built = DistanceTable.build(map);
+        DistanceTable saved = DistanceTable.load(map, dir);
+        DistanceTable mapped = DistanceTable.load(map, dir);
+        assertEquals(dir.list().length, 1);
+        for (int x = 0; x < map.length; x++) {
+            for (int y = 0; y < map[0].length; y++) {
+                int[] expected = bfs.compute(x, y);
+                assertEquals(built.field(x, y), expected);
+                assertEquals(saved.field(x, y), expected);
+                assertEquals(mapped.field(x, y), expected);
+                assertEquals(mapped.get(x, y, 3, 2), expected[3 * map[0].length + 2]);
+            }
+        }
+    }
+
+    @Test
+    void fieldsComeFromTableOnceSet() {
+        Tile[][] map = StressTest.scenarios().get(0).map;
+        DistanceFields fields = new DistanceFields(map, 8);
+        int[] before = fields.get(5, 2);
+        fields.setTable(DistanceTable.build(map));
+        assertEquals(fields.get(7, 2), fields.compute(7, 2));
+        assertSame(fields.get(5, 2), before);
+    }
+
+    @Test
+    void hashDependsOnTiles() {
+        Tile[][] map = StressTest.scenarios().get(0).map;
+        Tile[][] changed = new Tile[map.length][];
+        for (int x = 0; x < map.length; x++) {
+            changed[x] = map[x].clone();
+        }
+        changed[2][2] = changed[2][2] == Tile.EMPTY ? Tile.LADDER : Tile.EMPTY;
+        assertNotEquals(DistanceTable.hash(changed), DistanceTable.hash(map));
+    }
+}
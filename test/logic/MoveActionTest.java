@@ -0,0 +1,28 @@
+package logic;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class MoveActionTest {
+
+    @Test
+    void equalMovesAreTheSame() {
+        MoveAction jump = MoveAction.of(10, true, false);
+        assertSame(MoveAction.of(10, true, false), jump);
+        assertSame(MoveAction.byId(jump.id), jump);
+        assertNotSame(MoveAction.of(10, false, true), jump);
+        // as Double.compare tells them apart
+        assertNotSame(MoveAction.of(-0.0, false, false), MoveAction.of(0.0, false, false));
+    }
+
+    @Test
+    void otherSpeedsAreComparedByValue() {
+        MoveAction move = MoveAction.of(3.1, false, false);
+        assertFalse(move.interned());
+        assertEquals(MoveAction.of(3.1, false, false), move);
+        assertNotEquals(MoveAction.of(3.1, true, false), move);
+        assertEquals(Plan.plan(2, move).add(3, 0, true, false), Plan.plan(1, 3.1, false, false).add(1, 3.1, false, false).add(3, 0, true, false));
+        assertEquals(Plan.plan(2, move).runsCount(), 1);
+    }
+}
@@ -0,0 +1,25 @@
+package logic;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class PackedStateTest {
+
+    @Test
+    void packingIsExact() {
+        for (StressTest.Scenario scenario : StressTest.scenarios()) {
+            for (UnitState state : scenario.expected) {
+                assertTrue(PackedState.packable(state.remainingJumpTime));
+                long jump = PackedState.jump(state.remainingJumpTime, state.canJump, state.canCancel);
+                assertEquals(PackedState.remainingJumpTime(jump), state.remainingJumpTime);
+                assertEquals(PackedState.canJump(jump), state.canJump);
+                assertEquals(PackedState.canCancel(jump), state.canCancel);
+                assertEquals(PackedState.coordinate(PackedState.coordinate(state.position.x)), state.position.x);
+            }
+        }
+        // the sign bit of -0.0 is where canJump goes
+        assertFalse(PackedState.packable(-0.0));
+        assertNotEquals(PackedState.jump(0.5, true, false), PackedState.jump(0.5, false, true));
+    }
+}
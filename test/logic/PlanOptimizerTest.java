@@ -0,0 +1,55 @@
+package logic;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static logic.Plan.plan;
+import static logic.Simulator.SPEED;
+import static org.testng.Assert.*;
+
+public class PlanOptimizerTest {
+
+    @Test
+    void mutationsKeepLength() {
+        Random random = new Random(42);
+        Plan plan = plan(10, SPEED, false, false).add(22, 0, true, false);
+        for (int i = 0; i < 1000; i++) {
+            plan = PlanOptimizer.mutate(plan, 32, random);
+            assertEquals(plan.size(), 32);
+        }
+    }
+
+    @Test
+    void improvesOnSeedsWithinBudget() {
+        StressTest.Scenario scenario = StressTest.scenarios().get(0);
+        Simulator simulator = new Simulator(scenario.map, scenario.ticksPerSecond, scenario.microticksPerTick);
+        int steps = 32;
+        Point target = scenario.start.position.add(new Point(-3, 2));
+        ToDoubleFunction<TrajectoryBuffer> evaluator = states -> {
+            double sum = 0;
+            for (int i = 0; i < states.size(); i++) {
+                sum += Math.hypot(states.x(i) - target.x, states.y(i) - target.y);
+            }
+            return sum;
+        };
+        List<Plan> seeds = Arrays.asList(plan(steps, 0, false, false), plan(steps, SPEED, false, false));
+        double seedsBest = Double.POSITIVE_INFINITY;
+        for (Plan seed : seeds) {
+            seedsBest = Math.min(seedsBest, evaluator.applyAsDouble(simulator.simulate(scenario.start, seed, new TrajectoryBuffer(steps))));
+        }
+
+        PlanOptimizer optimizer = new PlanOptimizer(simulator, 24, 6);
+        PlanOptimizer.Result result = optimizer.optimize(seeds, scenario.start, steps, 1000, new Random(1), evaluator);
+        assertTrue(result.best.eval < seedsBest);
+        assertEquals(result.best.plan, result.elites.get(0));
+        // the budget is checked after each generation of at most 24 plans
+        assertTrue(result.simulatedTicks < 1000 + 24 * steps);
+
+        PlanOptimizer.Result again = optimizer.optimize(seeds, scenario.start, steps, 1000, new Random(1), evaluator);
+        assertEquals(again.best.plan, result.best.plan);
+    }
+}
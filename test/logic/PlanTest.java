@@ -0,0 +1,45 @@
+package logic;
+
+import org.testng.annotations.Test;
+
+import static logic.Plan.plan;
+import static org.testng.Assert.assertEquals;
+
+public class PlanTest {
+
+    @Test
+    void followUpPlanKeepsExpectedLength() {
+        MoveAction left = MoveAction.of(-10, false, false);
+        MoveAction jump = MoveAction.of(0, true, false);
+        MoveAction stay = MoveAction.of(0, false, false);
+        Plan plan = plan(1, left).add(3, jump).add(4, left);
+
+        assertEquals(plan.followUpPlan(stay, 8), plan(3, jump).add(4, left).add(1, stay));
+        // a shorter horizon cuts the tail, a longer one extends it
+        assertEquals(plan.followUpPlan(stay, 5), plan(3, jump).add(2, left));
+        assertEquals(plan.followUpPlan(stay, 12), plan(3, jump).add(4, left).add(5, stay));
+        assertEquals(plan.followUpPlan(stay, 5).followUpPlan(stay, 5).toString(), plan(2, jump).add(2, left).add(1, stay).toString());
+    }
+
+    @Test
+    void followUpsSharingRunsDontInterfere() {
+        MoveAction left = MoveAction.of(-10, false, false);
+        MoveAction jump = MoveAction.of(0, true, false);
+        MoveAction stay = MoveAction.of(0, false, false);
+        Plan plan = plan(2, jump).add(3, left);
+        Plan sameMove = plan.followUpPlan(left, 5);
+        Plan otherMove = plan.followUpPlan(stay, 5);
+        Plan extended = sameMove.followUpPlan(jump, 5).add(2, jump);
+        plan.add(1, stay);
+
+        assertEquals(plan, plan(2, jump).add(3, left).add(1, stay));
+        assertEquals(sameMove, plan(1, jump).add(4, left));
+        assertEquals(otherMove, plan(1, jump).add(3, left).add(1, stay));
+        assertEquals(extended, plan(4, left).add(3, jump));
+        assertEquals(extended.hashCode(), plan(4, left).add(3, jump).hashCode());
+        assertEquals(otherMove.get(0), jump);
+        assertEquals(otherMove.get(3), left);
+        assertEquals(otherMove.get(4), stay);
+        assertEquals(otherMove.runsCount(), 3);
+    }
+}
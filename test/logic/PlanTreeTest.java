@@ -0,0 +1,40 @@
+package logic;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static logic.Plan.plan;
+import static logic.Simulator.SPEED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class PlanTreeTest {
+
+    @Test
+    void sameStatesAsSimulatingEachPlan() {
+        for (StressTest.Scenario scenario : StressTest.scenarios()) {
+            Simulator simulator = new Simulator(scenario.map, scenario.ticksPerSecond, scenario.microticksPerTick);
+            List<Plan> plans = new ArrayList<>();
+            int steps = 32;
+            for (int cnt = 0; cnt <= steps; cnt += 8) {
+                for (double speed : new double[]{-SPEED, 0, SPEED}) {
+                    plans.add(plan(cnt, speed, false, false).add(steps - cnt, speed, true, false));
+                    plans.add(plan(cnt, speed, false, false).add(steps - cnt, -speed, false, true));
+                    plans.add(plan(cnt, 0, true, false).add(steps - cnt, speed, false, false));
+                }
+            }
+            PlanTree tree = new PlanTree(plans);
+            assertTrue(tree.simulatedTicks() < plans.size() * steps);
+
+            List<Integer> visited = new ArrayList<>();
+            tree.search(simulator, scenario.start, new TrajectoryBuffer(steps), (plan, index, states) -> {
+                assertEquals(plan, plans.get(index));
+                assertEquals(states.toStates(), simulator.simulate(scenario.start, plan));
+                visited.add(index);
+            });
+            assertEquals(visited.size(), tree.size());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package logic;
+
+import model.Tile;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class ReachabilityGraphTest {
+
+    @Test
+    void walkingAlongTheFloor() {
+        for (StressTest.Scenario scenario : StressTest.scenarios()) {
+            Tile[][] map = scenario.map;
+            CollisionMap collisionMap = new CollisionMap(map);
+            Simulator simulator = new Simulator(collisionMap, 60, 100);
+            List<Point> stablePoints = StablePointIndex.findStablePoints(collisionMap, simulator, 0.25);
+            ReachabilityGraph graph = new ReachabilityGraph(stablePoints, 0.25, simulator, new DistanceFields(map, 0), 4);
+
+            Point target = stablePoints.get(0);
+            int targetNode = graph.nodeAt(target.x, target.y);
+            assertTrue(targetNode >= 0);
+            double[] ticks = graph.ticksTo(targetNode);
+            assertEquals(ticks[targetNode], 0.0);
+            int neighbour = graph.nodeAt(target.x + 1, target.y);
+            if (neighbour >= 0) {
+                // 1 cell at 10 cells per second is 6 ticks
+                assertTrue(ticks[neighbour] >= 6 && ticks[neighbour] <= 8, "" + ticks[neighbour]);
+            }
+            int[] field = graph.field(target);
+            assertEquals(field[(int) target.x * map[0].length + (int) target.y], 0);
+        }
+    }
+
+    @Test
+    void jumpingOntoAPlatform() {
+        for (int height = 3; height <= 5; height++) {
+            Tile[][] map = new Tile[16][12];
+            for (int x = 0; x < map.length; x++) {
+                for (int y = 0; y < map[0].length; y++) {
+                    boolean border = x == 0 || y == 0 || x == map.length - 1 || y == map[0].length - 1;
+                    map[x][y] = border ? Tile.WALL : y == height && x >= 6 && x < 10 ? Tile.PLATFORM : Tile.EMPTY;
+                }
+            }
+            CollisionMap collisionMap = new CollisionMap(map);
+            Simulator simulator = new Simulator(collisionMap, 60, 100);
+            List<Point> stablePoints = StablePointIndex.findStablePoints(collisionMap, simulator, 0.25);
+            ReachabilityGraph graph = new ReachabilityGraph(stablePoints, 0.25, simulator, new DistanceFields(map, 0), 4);
+
+            int floor = graph.nodeAt(7.95, 1);
+            int platformTop = graph.nodeAt(7.95, height + 1);
+            assertTrue(floor >= 0 && platformTop >= 0);
+            double ticks = graph.ticksTo(platformTop)[floor];
+            // rising through the platform at 10 cells per second and landing on it
+            assertTrue(ticks >= height * 6 && ticks <= 60, height + ": " + ticks);
+        }
+    }
+}
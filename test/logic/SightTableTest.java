@@ -0,0 +1,47 @@
+package logic;
+
+import model.Tile;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static model.Tile.WALL;
+import static org.testng.Assert.*;
+
+public class SightTableTest {
+
+    @Test
+    void sameAsSimulatedBullet() {
+        Random random = new Random(42);
+        for (StressTest.Scenario scenario : StressTest.scenarios()) {
+            CollisionMap map = new CollisionMap(scenario.map);
+            Simulator simulator = new Simulator(map, scenario.ticksPerSecond, scenario.microticksPerTick);
+            SightTable table = new SightTable(simulator, map, 8);
+            for (int i = 0; i < 300; i++) {
+                Point from = randomFreePoint(random, scenario.map);
+                Point to = randomFreePoint(random, scenario.map);
+                double size = random.nextBoolean() ? 0.2 : 0.5;
+                double speed = new double[]{20, 30, 50}[random.nextInt(3)];
+                // nearby queries mostly fall into the same pairs of cells
+                for (int j = 0; j < 10; j++) {
+                    Point a = from.add(new Point(random.nextDouble() * 0.1, random.nextDouble() * 0.1));
+                    Point b = to.add(new Point(random.nextDouble() * 0.1, random.nextDouble() * 0.1));
+                    Point speedV = b.minus(a).norm().mult(speed);
+                    int ticks = (int) Math.ceil(Utils.dist(a, b) / (speed * simulator.tickDuration));
+                    boolean expected = simulator.simulateBullet(a, speedV, size, ticks).size() >= ticks;
+                    assertEquals(simulator.bulletFlies(a, speedV, size, ticks), expected);
+                    assertEquals(table.flies(a, speedV, size, ticks), expected);
+                }
+            }
+        }
+    }
+
+    private static Point randomFreePoint(Random random, Tile[][] map) {
+        while (true) {
+            Point p = new Point(1 + random.nextDouble() * (map.length - 2.1), 1 + random.nextDouble() * (map[0].length - 2.1));
+            if (map[(int) p.x][(int) p.y] != WALL) {
+                return p;
+            }
+        }
+    }
+}
@@ -31,7 +31,7 @@ public class SimulatorTest {
                 new UnitState(new Point(2.5, 1.0150000000000003), 0.5485000000000002, true, true)
         );
         Plan plan = new Plan()
-                .add(10, new MoveAction(0.0, true, false));
+                .add(10, MoveAction.of(0.0, true, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -52,8 +52,8 @@ public class SimulatorTest {
                 new UnitState(new Point(3.5, 1.0), 0.55, true, true)
         );
         Plan plan = new Plan()
-                .add(3, new MoveAction(0.0, true, false))
-                .add(5, new MoveAction(0.0, false, false));
+                .add(3, MoveAction.of(0.0, true, false))
+                .add(5, MoveAction.of(0.0, false, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -74,8 +74,8 @@ public class SimulatorTest {
                 new UnitState(new Point(3.5, 2.0000000009999996), 0.55, true, true)
         );
         Plan plan = new Plan()
-                .add(3, new MoveAction(0.0, true, false))
-                .add(5, new MoveAction(0.0, false, false));
+                .add(3, MoveAction.of(0.0, true, false))
+                .add(5, MoveAction.of(0.0, false, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -95,7 +95,7 @@ public class SimulatorTest {
                 new UnitState(new Point(3.5, 6.49666666666686), 0.0, false, false)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(0.0, true, false));
+                .add(expected.size(), MoveAction.of(0.0, true, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -115,7 +115,7 @@ public class SimulatorTest {
                 new UnitState(new Point(3.5499999999999945, 1.0533333333333346), 0.5446666666666673, true, true)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(10.0, true, false));
+                .add(expected.size(), MoveAction.of(10.0, true, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -135,7 +135,7 @@ public class SimulatorTest {
                 new UnitState(new Point(3.5499999999999945, 1.0533333333333346), 0.5446666666666673, true, true)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(10.0, true, false));
+                .add(expected.size(), MoveAction.of(10.0, true, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -154,7 +154,7 @@ public class SimulatorTest {
                 new UnitState(new Point(1.4500000009999998, 1.0), 0.55, true, true)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(-10.0, false, false));
+                .add(expected.size(), MoveAction.of(-10.0, false, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -173,7 +173,7 @@ public class SimulatorTest {
                 new UnitState(new Point(1.4500000009999998, 1.0), 0.55, true, true)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(-10.0, false, false));
+                .add(expected.size(), MoveAction.of(-10.0, false, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -190,7 +190,7 @@ public class SimulatorTest {
                 new UnitState(new Point(5.451666666666815, 1.9966666666666666), 0.0, false, false)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(10.0, false, false));
+                .add(expected.size(), MoveAction.of(10.0, false, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -208,7 +208,7 @@ public class SimulatorTest {
                 new UnitState(new Point(5.003333333333412, 1.9949999999999999), 0.0, false, false)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(10.0, false, false));
+                .add(expected.size(), MoveAction.of(10.0, false, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -229,8 +229,8 @@ public class SimulatorTest {
                 new UnitState(new Point(4.5, 2.003333333333333), 0.5495000000000001, true, true)
         );
         Plan plan = new Plan()
-                .add(3, new MoveAction(0.0, false, true))
-                .add(5, new MoveAction(0.0, true, false));
+                .add(3, MoveAction.of(0.0, false, true))
+                .add(5, MoveAction.of(0.0, true, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -249,7 +249,7 @@ public class SimulatorTest {
                 new UnitState(new Point(2.5566666666666604, 1.0100000000000002), 0.525, true, false)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(10.0, false, true));
+                .add(expected.size(), MoveAction.of(10.0, false, true));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -268,7 +268,7 @@ public class SimulatorTest {
                 new UnitState(new Point(3.0566666666666054, 2.0100000000000233), 0.5243333333333334, true, false)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(10.0, false, true));
+                .add(expected.size(), MoveAction.of(10.0, false, true));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -289,8 +289,8 @@ public class SimulatorTest {
                 new UnitState(new Point(3.5, 2.0000000009999996), 0.55, true, true)
         );
         Plan plan = new Plan()
-                .add(3, new MoveAction(0.0, true, false))
-                .add(5, new MoveAction(0.0, false, false));
+                .add(3, MoveAction.of(0.0, true, false))
+                .add(5, MoveAction.of(0.0, false, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -310,7 +310,7 @@ public class SimulatorTest {
                 new UnitState(new Point(4.00833333333328, 1.9849999999999997), 0.0, false, false)
         );
         Plan plan = new Plan()
-                .add(expected.size(), new MoveAction(10.0, false, false));
+                .add(expected.size(), MoveAction.of(10.0, false, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
@@ -455,9 +455,65 @@ public class SimulatorTest {
                 new UnitState(new Point(2.5, 3.326666666666544), 0.317333333333359, true, true)
         );
         Plan plan = new Plan()
-                .add(80, new MoveAction(0.0, true, false));
+                .add(80, MoveAction.of(0.0, true, false));
         List<UnitState> actual = simulator.simulate(start, plan);
         assertEquals(actual, expected);
     }
 
+    @Test
+    void bulletStopsAtWallContact() {
+        Tile[][] map = new Tile[10][10];
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                map[x][y] = x == 0 || y == 0 || x == 9 || y == 9 || x == 5 ? WALL : EMPTY;
+            }
+        }
+        Simulator simulator = new Simulator(map, 60, 100);
+        BulletTrajectory trajectory = simulator.simulateBullet(new Point(2.5, 5.5), new Point(50, 0), 0.2, 100500);
+        // touches the wall at x = 4.9 after 2.88 ticks
+        assertEquals(trajectory.size(), 2);
+        assertEquals(trajectory.x(1), 2.5 + 50.0 / 60 * 2, 1e-9);
+        assertEquals(trajectory.collisionPos.x, 4.9, 1e-9);
+        assertEquals(trajectory.collisionPos.y, 5.5, 1e-9);
+
+        // clips the corner of the wall tile (5, 5) between two ticks, at neither of which it touches it
+        for (int y = 1; y < 9; y++) {
+            map[5][y] = y == 5 ? WALL : EMPTY;
+        }
+        simulator = new Simulator(map, 60, 100);
+        trajectory = simulator.simulateBullet(new Point(4.0, 5.85), new Point(30, -30), 0.2, 100500);
+        assertEquals(trajectory.size(), 1);
+        assertEquals(trajectory.collisionPos.x, 4.9, 1e-9);
+        assertEquals(trajectory.collisionPos.y, 4.95, 1e-9);
+    }
+
+    @Test
+    void bulletContactSameAsFineStepping() {
+        java.util.Random random = new java.util.Random(1);
+        int steps = 1000;
+        for (StressTest.Scenario scenario : StressTest.scenarios()) {
+            Simulator simulator = new Simulator(scenario.map, 60, 100);
+            CollisionMap map = new CollisionMap(scenario.map);
+            for (int i = 0; i < 200; i++) {
+                Point start = new Point(1.5 + random.nextDouble() * (scenario.map.length - 3), 1.5 + random.nextDouble() * (scenario.map[0].length - 3));
+                double size = random.nextBoolean() ? 0.2 : 0.5;
+                if (map.bulletCollidesWithWall(start.x, start.y, size)) {
+                    continue;
+                }
+                Point speed = Point.dir(random.nextDouble() * 2 * Math.PI).mult(random.nextBoolean() ? 50 : 20);
+                BulletTrajectory trajectory = simulator.simulateBullet(start, speed, size, 100500);
+                Point step = speed.mult(simulator.tickDuration / steps);
+                Point p = start;
+                int substep = 0;
+                while (!map.bulletCollidesWithWall(p.x, p.y, size)) {
+                    p = p.add(step);
+                    substep++;
+                }
+                // the fine stepping notices the contact up to a step late
+                assertEquals(trajectory.size(), (substep - 1) / steps, 1);
+                assertEquals(trajectory.collisionPos.x, p.x, step.len() + 1e-9);
+                assertEquals(trajectory.collisionPos.y, p.y, step.len() + 1e-9);
+            }
+        }
+    }
 }
@@ -14,9 +14,12 @@ public class StressTest {
 
     @Test
     void test() {
+        scenario1().check();
+    }
+
+    static Scenario scenario1() {
         UnitState start = new UnitState(new Point(1.5, 1.0), 0.0, false, false);
         Tile[][] map = new Tile[][]{{WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}, {WALL, EMPTY, JUMP_PAD, LADDER, WALL, PLATFORM, EMPTY, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, EMPTY, EMPTY, LADDER, PLATFORM, JUMP_PAD, LADDER, EMPTY, LADDER, WALL, PLATFORM, EMPTY, EMPTY, WALL, WALL, WALL, WALL, JUMP_PAD, WALL, WALL}, {WALL, JUMP_PAD, JUMP_PAD, PLATFORM, PLATFORM, LADDER, LADDER, JUMP_PAD, JUMP_PAD, EMPTY, PLATFORM, EMPTY, JUMP_PAD, EMPTY, LADDER, JUMP_PAD, PLATFORM, EMPTY, JUMP_PAD, JUMP_PAD, PLATFORM, LADDER, JUMP_PAD, JUMP_PAD, LADDER, JUMP_PAD, LADDER, JUMP_PAD, PLATFORM, WALL}, {WALL, LADDER, PLATFORM, PLATFORM, LADDER, JUMP_PAD, EMPTY, WALL, LADDER, EMPTY, WALL, WALL, LADDER, WALL, PLATFORM, LADDER, WALL, LADDER, PLATFORM, LADDER, PLATFORM, PLATFORM, WALL, WALL, LADDER, PLATFORM, PLATFORM, PLATFORM, LADDER, WALL}, {WALL, EMPTY, LADDER, JUMP_PAD, JUMP_PAD, LADDER, PLATFORM, JUMP_PAD, JUMP_PAD, PLATFORM, EMPTY, JUMP_PAD, JUMP_PAD, PLATFORM, WALL, WALL, EMPTY, PLATFORM, WALL, LADDER, LADDER, PLATFORM, LADDER, PLATFORM, LADDER, WALL, LADDER, JUMP_PAD, WALL, WALL}, {WALL, PLATFORM, EMPTY, JUMP_PAD, JUMP_PAD, EMPTY, WALL, WALL, LADDER, PLATFORM, WALL, PLATFORM, LADDER, WALL, EMPTY, EMPTY, PLATFORM, EMPTY, WALL, JUMP_PAD, EMPTY, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, EMPTY, JUMP_PAD, WALL}, {WALL, WALL, EMPTY, EMPTY, JUMP_PAD, LADDER, JUMP_PAD, WALL, JUMP_PAD, LADDER, PLATFORM, JUMP_PAD, PLATFORM, EMPTY, EMPTY, LADDER, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, PLATFORM, WALL, WALL, LADDER, PLATFORM, PLATFORM, JUMP_PAD, WALL}, {WALL, EMPTY, WALL, LADDER, JUMP_PAD, PLATFORM, WALL, LADDER, EMPTY, LADDER, WALL, LADDER, WALL, LADDER, EMPTY, EMPTY, LADDER, LADDER, LADDER, JUMP_PAD, JUMP_PAD, JUMP_PAD, PLATFORM, PLATFORM, PLATFORM, EMPTY, EMPTY, PLATFORM, JUMP_PAD, WALL}, {WALL, EMPTY, JUMP_PAD, LADDER, LADDER, EMPTY, EMPTY, WALL, LADDER, JUMP_PAD, PLATFORM, PLATFORM, LADDER, PLATFORM, WALL, PLATFORM, LADDER, PLATFORM, EMPTY, JUMP_PAD, EMPTY, JUMP_PAD, WALL, WALL, EMPTY, WALL, JUMP_PAD, PLATFORM, LADDER, WALL}, {WALL, PLATFORM, LADDER, LADDER, JUMP_PAD, JUMP_PAD, WALL, PLATFORM, PLATFORM, LADDER, LADDER, WALL, JUMP_PAD, LADDER, LADDER, LADDER, LADDER, PLATFORM, JUMP_PAD, EMPTY, EMPTY, WALL, WALL, LADDER, PLATFORM, PLATFORM, JUMP_PAD, WALL, PLATFORM, WALL}, {WALL, WALL, EMPTY, LADDER, WALL, JUMP_PAD, WALL, PLATFORM, WALL, LADDER, PLATFORM, JUMP_PAD, JUMP_PAD, JUMP_PAD, PLATFORM, LADDER, PLATFORM, JUMP_PAD, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, JUMP_PAD, WALL, WALL, JUMP_PAD, PLATFORM, LADDER, WALL}, {WALL, EMPTY, PLATFORM, JUMP_PAD, LADDER, JUMP_PAD, PLATFORM, LADDER, LADDER, WALL, LADDER, LADDER, JUMP_PAD, EMPTY, WALL, PLATFORM, LADDER, LADDER, EMPTY, EMPTY, LADDER, JUMP_PAD, EMPTY, WALL, PLATFORM, LADDER, EMPTY, WALL, PLATFORM, WALL}, {WALL, EMPTY, WALL, JUMP_PAD, LADDER, EMPTY, PLATFORM, EMPTY, EMPTY, LADDER, WALL, LADDER, PLATFORM, LADDER, JUMP_PAD, JUMP_PAD, LADDER, PLATFORM, EMPTY, WALL, WALL, PLATFORM, JUMP_PAD, LADDER, LADDER, WALL, PLATFORM, JUMP_PAD, EMPTY, WALL}, {WALL, WALL, LADDER, PLATFORM, JUMP_PAD, PLATFORM, LADDER, JUMP_PAD, WALL, LADDER, WALL, PLATFORM, EMPTY, PLATFORM, LADDER, WALL, JUMP_PAD, LADDER, EMPTY, EMPTY, LADDER, WALL, EMPTY, LADDER, WALL, JUMP_PAD, JUMP_PAD, PLATFORM, PLATFORM, WALL}, {WALL, JUMP_PAD, PLATFORM, WALL, WALL, JUMP_PAD, JUMP_PAD, EMPTY, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, EMPTY, PLATFORM, LADDER, EMPTY, PLATFORM, LADDER, PLATFORM, LADDER, PLATFORM, WALL, WALL, PLATFORM, EMPTY, PLATFORM, WALL, JUMP_PAD, WALL, WALL}, {WALL, WALL, LADDER, WALL, PLATFORM, JUMP_PAD, WALL, LADDER, WALL, WALL, JUMP_PAD, WALL, JUMP_PAD, JUMP_PAD, EMPTY, WALL, LADDER, EMPTY, LADDER, JUMP_PAD, PLATFORM, EMPTY, WALL, JUMP_PAD, WALL, PLATFORM, LADDER, EMPTY, WALL, WALL}, {WALL, WALL, WALL, PLATFORM, PLATFORM, EMPTY, LADDER, JUMP_PAD, LADDER, WALL, PLATFORM, EMPTY, JUMP_PAD, EMPTY, JUMP_PAD, PLATFORM, LADDER, WALL, EMPTY, EMPTY, LADDER, JUMP_PAD, JUMP_PAD, JUMP_PAD, LADDER, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, WALL}, {WALL, JUMP_PAD, JUMP_PAD, LADDER, PLATFORM, WALL, JUMP_PAD, EMPTY, PLATFORM, JUMP_PAD, JUMP_PAD, JUMP_PAD, LADDER, EMPTY, LADDER, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, WALL, JUMP_PAD, LADDER, JUMP_PAD, EMPTY, JUMP_PAD, WALL, EMPTY, EMPTY, EMPTY, WALL}, {WALL, JUMP_PAD, PLATFORM, EMPTY, WALL, LADDER, PLATFORM, JUMP_PAD, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, EMPTY, LADDER, LADDER, JUMP_PAD, LADDER, WALL, LADDER, LADDER, LADDER, JUMP_PAD, JUMP_PAD, LADDER, PLATFORM, WALL, LADDER, EMPTY, WALL}, {WALL, EMPTY, PLATFORM, LADDER, EMPTY, EMPTY, LADDER, WALL, WALL, EMPTY, WALL, WALL, JUMP_PAD, PLATFORM, PLATFORM, EMPTY, EMPTY, LADDER, EMPTY, LADDER, EMPTY, PLATFORM, EMPTY, WALL, LADDER, PLATFORM, PLATFORM, EMPTY, JUMP_PAD, WALL}, {WALL, JUMP_PAD, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, WALL, PLATFORM, WALL, JUMP_PAD, EMPTY, LADDER, PLATFORM, JUMP_PAD, EMPTY, WALL, LADDER, EMPTY, EMPTY, EMPTY, WALL, PLATFORM, EMPTY, LADDER, JUMP_PAD, JUMP_PAD, JUMP_PAD, WALL, PLATFORM, WALL}, {WALL, LADDER, LADDER, PLATFORM, WALL, PLATFORM, JUMP_PAD, LADDER, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, LADDER, EMPTY, LADDER, LADDER, PLATFORM, WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, JUMP_PAD, PLATFORM, LADDER, WALL, JUMP_PAD, LADDER, WALL}, {WALL, LADDER, EMPTY, PLATFORM, EMPTY, WALL, EMPTY, WALL, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, WALL, JUMP_PAD, WALL, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, LADDER, PLATFORM, EMPTY, WALL, PLATFORM, PLATFORM, WALL, WALL, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, LADDER, PLATFORM, JUMP_PAD, PLATFORM, EMPTY, WALL, EMPTY, JUMP_PAD, PLATFORM, LADDER, LADDER, EMPTY, LADDER, EMPTY, WALL, PLATFORM, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, PLATFORM, PLATFORM, EMPTY, EMPTY, WALL}, {WALL, EMPTY, WALL, PLATFORM, JUMP_PAD, WALL, PLATFORM, LADDER, EMPTY, PLATFORM, WALL, JUMP_PAD, PLATFORM, JUMP_PAD, JUMP_PAD, EMPTY, PLATFORM, LADDER, JUMP_PAD, WALL, EMPTY, PLATFORM, PLATFORM, EMPTY, JUMP_PAD, PLATFORM, PLATFORM, WALL, JUMP_PAD, WALL}, {WALL, LADDER, PLATFORM, LADDER, WALL, EMPTY, JUMP_PAD, LADDER, WALL, PLATFORM, JUMP_PAD, EMPTY, JUMP_PAD, LADDER, JUMP_PAD, LADDER, WALL, EMPTY, LADDER, PLATFORM, LADDER, PLATFORM, WALL, LADDER, EMPTY, LADDER, LADDER, JUMP_PAD, PLATFORM, WALL}, {WALL, PLATFORM, WALL, WALL, JUMP_PAD, JUMP_PAD, WALL, JUMP_PAD, WALL, PLATFORM, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, WALL, PLATFORM, PLATFORM, LADDER, LADDER, JUMP_PAD, JUMP_PAD, WALL, JUMP_PAD, WALL, LADDER, JUMP_PAD, LADDER, PLATFORM, WALL, WALL}, {WALL, LADDER, PLATFORM, LADDER, LADDER, EMPTY, JUMP_PAD, EMPTY, LADDER, LADDER, LADDER, PLATFORM, PLATFORM, JUMP_PAD, JUMP_PAD, WALL, LADDER, LADDER, PLATFORM, WALL, LADDER, JUMP_PAD, WALL, EMPTY, PLATFORM, LADDER, LADDER, LADDER, EMPTY, WALL}, {WALL, LADDER, JUMP_PAD, JUMP_PAD, JUMP_PAD, EMPTY, PLATFORM, WALL, PLATFORM, WALL, LADDER, LADDER, EMPTY, WALL, PLATFORM, LADDER, LADDER, JUMP_PAD, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, EMPTY, PLATFORM, LADDER, PLATFORM, WALL, PLATFORM, EMPTY, WALL}, {WALL, PLATFORM, JUMP_PAD, WALL, JUMP_PAD, PLATFORM, WALL, PLATFORM, LADDER, JUMP_PAD, PLATFORM, EMPTY, EMPTY, LADDER, LADDER, EMPTY, PLATFORM, PLATFORM, LADDER, LADDER, EMPTY, PLATFORM, LADDER, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, PLATFORM, PLATFORM, WALL}, {WALL, PLATFORM, EMPTY, LADDER, LADDER, EMPTY, JUMP_PAD, LADDER, JUMP_PAD, EMPTY, LADDER, JUMP_PAD, PLATFORM, WALL, JUMP_PAD, JUMP_PAD, EMPTY, JUMP_PAD, EMPTY, PLATFORM, JUMP_PAD, LADDER, JUMP_PAD, LADDER, WALL, LADDER, PLATFORM, LADDER, LADDER, WALL}, {WALL, WALL, LADDER, EMPTY, WALL, JUMP_PAD, LADDER, EMPTY, JUMP_PAD, PLATFORM, WALL, JUMP_PAD, PLATFORM, JUMP_PAD, WALL, EMPTY, LADDER, LADDER, LADDER, PLATFORM, PLATFORM, JUMP_PAD, PLATFORM, WALL, WALL, JUMP_PAD, WALL, WALL, WALL, WALL}, {WALL, PLATFORM, JUMP_PAD, LADDER, JUMP_PAD, EMPTY, WALL, JUMP_PAD, JUMP_PAD, JUMP_PAD, LADDER, EMPTY, EMPTY, JUMP_PAD, JUMP_PAD, WALL, LADDER, EMPTY, LADDER, WALL, WALL, EMPTY, WALL, LADDER, JUMP_PAD, WALL, PLATFORM, EMPTY, JUMP_PAD, WALL}, {WALL, JUMP_PAD, WALL, PLATFORM, WALL, JUMP_PAD, PLATFORM, JUMP_PAD, WALL, PLATFORM, JUMP_PAD, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, PLATFORM, LADDER, PLATFORM, EMPTY, JUMP_PAD, LADDER, WALL, EMPTY, PLATFORM, LADDER, WALL, EMPTY, EMPTY, WALL, WALL}, {WALL, PLATFORM, LADDER, PLATFORM, JUMP_PAD, EMPTY, WALL, PLATFORM, WALL, LADDER, PLATFORM, LADDER, WALL, LADDER, LADDER, EMPTY, LADDER, WALL, WALL, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, WALL, WALL, WALL, PLATFORM, WALL, WALL}, {WALL, LADDER, PLATFORM, PLATFORM, LADDER, JUMP_PAD, EMPTY, JUMP_PAD, WALL, WALL, PLATFORM, PLATFORM, WALL, JUMP_PAD, EMPTY, JUMP_PAD, PLATFORM, PLATFORM, WALL, JUMP_PAD, LADDER, EMPTY, PLATFORM, LADDER, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, WALL}, {WALL, WALL, JUMP_PAD, EMPTY, WALL, PLATFORM, LADDER, LADDER, EMPTY, JUMP_PAD, LADDER, LADDER, EMPTY, LADDER, PLATFORM, EMPTY, LADDER, EMPTY, EMPTY, WALL, PLATFORM, JUMP_PAD, LADDER, LADDER, JUMP_PAD, WALL, LADDER, PLATFORM, WALL, WALL}, {WALL, WALL, LADDER, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, LADDER, WALL, EMPTY, EMPTY, JUMP_PAD, JUMP_PAD, EMPTY, EMPTY, LADDER, WALL, EMPTY, LADDER, JUMP_PAD, WALL, LADDER, PLATFORM, JUMP_PAD, WALL, EMPTY, WALL, WALL, WALL}, {WALL, EMPTY, EMPTY, WALL, PLATFORM, EMPTY, LADDER, JUMP_PAD, PLATFORM, JUMP_PAD, JUMP_PAD, WALL, PLATFORM, EMPTY, JUMP_PAD, WALL, EMPTY, WALL, PLATFORM, WALL, EMPTY, EMPTY, LADDER, EMPTY, EMPTY, LADDER, WALL, JUMP_PAD, EMPTY, WALL}, {WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}};
-        Simulator simulator = new Simulator(map, (int) 6000.0, 1);
         List<UnitState> expected = Arrays.asList(
                 new UnitState(new Point(1.500463969327456, 1.0), 0.525, true, false),
                 new UnitState(new Point(1.500927938654912, 1.0033333333333334), 0.525, true, false),
@@ -462,65 +465,67 @@ public class StressTest {
                 new UnitState(new Point(1.6479096391328418, 2.183333333333352), 0.55, true, true)
         );
         Plan plan = new Plan()
-                .add(3, new MoveAction(2.7838159647356093, false, false))
-                .add(1, new MoveAction(-5.296070340839165, false, true))
-                .add(14, new MoveAction(0.3152962895792495, false, false))
-                .add(18, new MoveAction(1.6765981048981633, false, true))
-                .add(14, new MoveAction(5.531313046710027, true, false))
-                .add(1, new MoveAction(4.27433959139719, false, false))
-                .add(2, new MoveAction(8.451628766540423, true, false))
-                .add(3, new MoveAction(-6.3505495813562245, true, false))
-                .add(3, new MoveAction(-7.873373480246437, true, false))
-                .add(6, new MoveAction(7.202155371587029, false, false))
-                .add(1, new MoveAction(7.267215489213324, true, false))
-                .add(1, new MoveAction(8.942296646961644, false, true))
-                .add(12, new MoveAction(4.507278809312895, true, false))
-                .add(19, new MoveAction(8.017316081134403, false, false))
-                .add(15, new MoveAction(-5.234417485017026, true, false))
-                .add(15, new MoveAction(8.812903173703049, false, true))
-                .add(8, new MoveAction(8.584217037430836, false, false))
-                .add(0, new MoveAction(8.005341898697662, true, false))
-                .add(2, new MoveAction(-6.144189140441854, false, false))
-                .add(2, new MoveAction(-5.957770836438254, true, false))
-                .add(1, new MoveAction(8.011894997424914, false, false))
-                .add(11, new MoveAction(2.7509196004990226, false, false))
-                .add(13, new MoveAction(5.529968893920575, false, false))
-                .add(3, new MoveAction(-0.8783148477506266, false, true))
-                .add(10, new MoveAction(-5.473036507674762, true, false))
-                .add(12, new MoveAction(9.785243217103716, false, true))
-                .add(13, new MoveAction(-2.758038701751417, true, false))
-                .add(18, new MoveAction(3.3019675871500365, false, true))
-                .add(13, new MoveAction(-1.6288157499644935, false, true))
-                .add(3, new MoveAction(6.102742512617617, false, false))
-                .add(14, new MoveAction(2.5034190617518792, false, false))
-                .add(16, new MoveAction(-9.230914071598185, false, false))
-                .add(17, new MoveAction(7.314202670242899, false, false))
-                .add(5, new MoveAction(0.3128195097827309, true, false))
-                .add(13, new MoveAction(-7.287744014070214, true, false))
-                .add(12, new MoveAction(-2.7867840178174985, true, false))
-                .add(7, new MoveAction(7.7917935729594205, true, false))
-                .add(15, new MoveAction(9.192221703605963, false, true))
-                .add(7, new MoveAction(7.229514839085031, true, false))
-                .add(4, new MoveAction(5.055995629112511, false, false))
-                .add(16, new MoveAction(6.675215054708811, false, false))
-                .add(0, new MoveAction(-6.596328558057596, true, false))
-                .add(19, new MoveAction(-7.279868251150738, false, true))
-                .add(1, new MoveAction(-5.398100549227101, false, false))
-                .add(9, new MoveAction(-2.8127128445609673, false, false))
-                .add(1, new MoveAction(-7.8536140728785035, false, false))
-                .add(12, new MoveAction(7.773239447355046, true, false))
-                .add(17, new MoveAction(3.3793046919611225, true, false))
-                .add(5, new MoveAction(-2.519171792999771, true, false))
-                .add(15, new MoveAction(1.5041003134915378, true, false));
-        List<UnitState> actual = simulator.simulate(start, plan);
-        assertEquals(actual, expected);
+                .add(3, MoveAction.of(2.7838159647356093, false, false))
+                .add(1, MoveAction.of(-5.296070340839165, false, true))
+                .add(14, MoveAction.of(0.3152962895792495, false, false))
+                .add(18, MoveAction.of(1.6765981048981633, false, true))
+                .add(14, MoveAction.of(5.531313046710027, true, false))
+                .add(1, MoveAction.of(4.27433959139719, false, false))
+                .add(2, MoveAction.of(8.451628766540423, true, false))
+                .add(3, MoveAction.of(-6.3505495813562245, true, false))
+                .add(3, MoveAction.of(-7.873373480246437, true, false))
+                .add(6, MoveAction.of(7.202155371587029, false, false))
+                .add(1, MoveAction.of(7.267215489213324, true, false))
+                .add(1, MoveAction.of(8.942296646961644, false, true))
+                .add(12, MoveAction.of(4.507278809312895, true, false))
+                .add(19, MoveAction.of(8.017316081134403, false, false))
+                .add(15, MoveAction.of(-5.234417485017026, true, false))
+                .add(15, MoveAction.of(8.812903173703049, false, true))
+                .add(8, MoveAction.of(8.584217037430836, false, false))
+                .add(0, MoveAction.of(8.005341898697662, true, false))
+                .add(2, MoveAction.of(-6.144189140441854, false, false))
+                .add(2, MoveAction.of(-5.957770836438254, true, false))
+                .add(1, MoveAction.of(8.011894997424914, false, false))
+                .add(11, MoveAction.of(2.7509196004990226, false, false))
+                .add(13, MoveAction.of(5.529968893920575, false, false))
+                .add(3, MoveAction.of(-0.8783148477506266, false, true))
+                .add(10, MoveAction.of(-5.473036507674762, true, false))
+                .add(12, MoveAction.of(9.785243217103716, false, true))
+                .add(13, MoveAction.of(-2.758038701751417, true, false))
+                .add(18, MoveAction.of(3.3019675871500365, false, true))
+                .add(13, MoveAction.of(-1.6288157499644935, false, true))
+                .add(3, MoveAction.of(6.102742512617617, false, false))
+                .add(14, MoveAction.of(2.5034190617518792, false, false))
+                .add(16, MoveAction.of(-9.230914071598185, false, false))
+                .add(17, MoveAction.of(7.314202670242899, false, false))
+                .add(5, MoveAction.of(0.3128195097827309, true, false))
+                .add(13, MoveAction.of(-7.287744014070214, true, false))
+                .add(12, MoveAction.of(-2.7867840178174985, true, false))
+                .add(7, MoveAction.of(7.7917935729594205, true, false))
+                .add(15, MoveAction.of(9.192221703605963, false, true))
+                .add(7, MoveAction.of(7.229514839085031, true, false))
+                .add(4, MoveAction.of(5.055995629112511, false, false))
+                .add(16, MoveAction.of(6.675215054708811, false, false))
+                .add(0, MoveAction.of(-6.596328558057596, true, false))
+                .add(19, MoveAction.of(-7.279868251150738, false, true))
+                .add(1, MoveAction.of(-5.398100549227101, false, false))
+                .add(9, MoveAction.of(-2.8127128445609673, false, false))
+                .add(1, MoveAction.of(-7.8536140728785035, false, false))
+                .add(12, MoveAction.of(7.773239447355046, true, false))
+                .add(17, MoveAction.of(3.3793046919611225, true, false))
+                .add(5, MoveAction.of(-2.519171792999771, true, false))
+                .add(15, MoveAction.of(1.5041003134915378, true, false));
+        return new Scenario(start, map, 6000, 1, plan, expected);
     }
 
     @Test
     void test2() {
+        scenario2().check();
+    }
+
+    static Scenario scenario2() {
         UnitState start = new UnitState(new Point(15.5, 15.0), 0.0, false, false);
         Tile[][] map = new Tile[][]{{WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}, {WALL, WALL, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, LADDER, PLATFORM, LADDER, LADDER, EMPTY, JUMP_PAD, LADDER, LADDER, PLATFORM, LADDER, LADDER, WALL, LADDER, WALL, JUMP_PAD, EMPTY, EMPTY, LADDER, WALL, LADDER, LADDER, LADDER, EMPTY, WALL}, {WALL, WALL, EMPTY, LADDER, WALL, WALL, EMPTY, JUMP_PAD, PLATFORM, LADDER, EMPTY, PLATFORM, LADDER, EMPTY, EMPTY, EMPTY, LADDER, WALL, PLATFORM, PLATFORM, WALL, JUMP_PAD, WALL, PLATFORM, PLATFORM, LADDER, LADDER, LADDER, JUMP_PAD, WALL}, {WALL, LADDER, WALL, PLATFORM, EMPTY, LADDER, WALL, JUMP_PAD, JUMP_PAD, LADDER, PLATFORM, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, JUMP_PAD, WALL, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, LADDER, LADDER, LADDER, WALL, PLATFORM, EMPTY, WALL, WALL}, {WALL, LADDER, PLATFORM, JUMP_PAD, JUMP_PAD, LADDER, EMPTY, EMPTY, JUMP_PAD, EMPTY, EMPTY, PLATFORM, JUMP_PAD, JUMP_PAD, EMPTY, JUMP_PAD, WALL, LADDER, EMPTY, PLATFORM, JUMP_PAD, JUMP_PAD, WALL, EMPTY, JUMP_PAD, JUMP_PAD, EMPTY, LADDER, JUMP_PAD, WALL}, {WALL, JUMP_PAD, PLATFORM, PLATFORM, WALL, JUMP_PAD, EMPTY, LADDER, WALL, WALL, WALL, JUMP_PAD, EMPTY, EMPTY, WALL, LADDER, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, LADDER, JUMP_PAD, LADDER, LADDER, WALL, WALL, LADDER, EMPTY, WALL}, {WALL, EMPTY, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, LADDER, WALL, EMPTY, JUMP_PAD, LADDER, PLATFORM, WALL, WALL, EMPTY, PLATFORM, EMPTY, LADDER, JUMP_PAD, PLATFORM, WALL, JUMP_PAD, LADDER, EMPTY, WALL, JUMP_PAD, LADDER, JUMP_PAD, LADDER, WALL}, {WALL, JUMP_PAD, WALL, WALL, WALL, EMPTY, LADDER, LADDER, JUMP_PAD, WALL, WALL, WALL, JUMP_PAD, LADDER, LADDER, JUMP_PAD, WALL, EMPTY, PLATFORM, JUMP_PAD, EMPTY, LADDER, EMPTY, WALL, WALL, EMPTY, PLATFORM, JUMP_PAD, LADDER, WALL}, {WALL, JUMP_PAD, WALL, JUMP_PAD, LADDER, PLATFORM, JUMP_PAD, JUMP_PAD, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, WALL, PLATFORM, PLATFORM, LADDER, EMPTY, LADDER, LADDER, PLATFORM, JUMP_PAD, JUMP_PAD, WALL, EMPTY, LADDER, JUMP_PAD, EMPTY, PLATFORM, WALL}, {WALL, LADDER, JUMP_PAD, LADDER, LADDER, EMPTY, WALL, WALL, JUMP_PAD, LADDER, EMPTY, LADDER, LADDER, EMPTY, LADDER, LADDER, JUMP_PAD, LADDER, EMPTY, JUMP_PAD, WALL, PLATFORM, PLATFORM, LADDER, JUMP_PAD, JUMP_PAD, WALL, EMPTY, WALL, WALL}, {WALL, EMPTY, LADDER, EMPTY, WALL, EMPTY, LADDER, WALL, LADDER, JUMP_PAD, WALL, JUMP_PAD, PLATFORM, EMPTY, EMPTY, WALL, WALL, WALL, WALL, PLATFORM, LADDER, PLATFORM, LADDER, WALL, PLATFORM, PLATFORM, EMPTY, JUMP_PAD, LADDER, WALL}, {WALL, EMPTY, EMPTY, LADDER, PLATFORM, EMPTY, PLATFORM, LADDER, LADDER, PLATFORM, LADDER, WALL, JUMP_PAD, WALL, EMPTY, PLATFORM, JUMP_PAD, LADDER, WALL, JUMP_PAD, EMPTY, WALL, PLATFORM, EMPTY, LADDER, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, WALL}, {WALL, EMPTY, PLATFORM, LADDER, WALL, WALL, LADDER, PLATFORM, LADDER, PLATFORM, LADDER, JUMP_PAD, LADDER, LADDER, PLATFORM, WALL, EMPTY, EMPTY, LADDER, WALL, LADDER, WALL, PLATFORM, JUMP_PAD, JUMP_PAD, PLATFORM, WALL, JUMP_PAD, PLATFORM, WALL}, {WALL, LADDER, PLATFORM, JUMP_PAD, WALL, PLATFORM, JUMP_PAD, WALL, JUMP_PAD, PLATFORM, JUMP_PAD, WALL, EMPTY, LADDER, WALL, PLATFORM, JUMP_PAD, PLATFORM, PLATFORM, PLATFORM, WALL, EMPTY, PLATFORM, LADDER, LADDER, JUMP_PAD, JUMP_PAD, PLATFORM, JUMP_PAD, WALL}, {WALL, EMPTY, WALL, JUMP_PAD, WALL, PLATFORM, WALL, PLATFORM, WALL, JUMP_PAD, WALL, PLATFORM, LADDER, JUMP_PAD, LADDER, LADDER, LADDER, WALL, JUMP_PAD, JUMP_PAD, WALL, EMPTY, LADDER, JUMP_PAD, EMPTY, JUMP_PAD, PLATFORM, PLATFORM, PLATFORM, WALL}, {WALL, EMPTY, EMPTY, WALL, WALL, WALL, JUMP_PAD, WALL, EMPTY, WALL, EMPTY, LADDER, PLATFORM, LADDER, JUMP_PAD, EMPTY, PLATFORM, LADDER, JUMP_PAD, EMPTY, EMPTY, LADDER, JUMP_PAD, PLATFORM, JUMP_PAD, PLATFORM, WALL, LADDER, PLATFORM, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, JUMP_PAD, WALL, LADDER, EMPTY, PLATFORM, LADDER, WALL, EMPTY, LADDER, LADDER, EMPTY, WALL, EMPTY, JUMP_PAD, JUMP_PAD, PLATFORM, PLATFORM, EMPTY, EMPTY, WALL, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, WALL}, {WALL, EMPTY, JUMP_PAD, WALL, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, JUMP_PAD, JUMP_PAD, PLATFORM, EMPTY, LADDER, WALL, EMPTY, PLATFORM, WALL, WALL, JUMP_PAD, WALL, WALL, LADDER, EMPTY, WALL, JUMP_PAD, LADDER, PLATFORM, LADDER, WALL}, {WALL, JUMP_PAD, PLATFORM, PLATFORM, JUMP_PAD, PLATFORM, WALL, PLATFORM, JUMP_PAD, EMPTY, JUMP_PAD, EMPTY, EMPTY, LADDER, EMPTY, PLATFORM, PLATFORM, LADDER, JUMP_PAD, WALL, JUMP_PAD, JUMP_PAD, EMPTY, LADDER, LADDER, JUMP_PAD, PLATFORM, WALL, LADDER, WALL}, {WALL, WALL, PLATFORM, PLATFORM, JUMP_PAD, WALL, EMPTY, WALL, EMPTY, PLATFORM, JUMP_PAD, LADDER, JUMP_PAD, LADDER, WALL, LADDER, JUMP_PAD, JUMP_PAD, JUMP_PAD, WALL, LADDER, LADDER, LADDER, LADDER, LADDER, EMPTY, EMPTY, PLATFORM, PLATFORM, WALL}, {WALL, PLATFORM, LADDER, WALL, EMPTY, PLATFORM, JUMP_PAD, JUMP_PAD, PLATFORM, EMPTY, WALL, EMPTY, WALL, EMPTY, WALL, JUMP_PAD, WALL, WALL, LADDER, EMPTY, WALL, WALL, EMPTY, WALL, WALL, EMPTY, EMPTY, EMPTY, LADDER, WALL}, {WALL, WALL, JUMP_PAD, WALL, EMPTY, JUMP_PAD, JUMP_PAD, WALL, PLATFORM, EMPTY, WALL, PLATFORM, WALL, PLATFORM, EMPTY, LADDER, JUMP_PAD, PLATFORM, JUMP_PAD, LADDER, EMPTY, EMPTY, WALL, LADDER, LADDER, EMPTY, LADDER, JUMP_PAD, PLATFORM, WALL}, {WALL, PLATFORM, EMPTY, PLATFORM, EMPTY, LADDER, WALL, JUMP_PAD, LADDER, WALL, JUMP_PAD, WALL, EMPTY, WALL, LADDER, EMPTY, WALL, EMPTY, JUMP_PAD, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, WALL, WALL, LADDER, JUMP_PAD, WALL, WALL}, {WALL, WALL, LADDER, JUMP_PAD, EMPTY, WALL, PLATFORM, WALL, WALL, EMPTY, WALL, JUMP_PAD, JUMP_PAD, EMPTY, JUMP_PAD, WALL, WALL, WALL, LADDER, JUMP_PAD, PLATFORM, WALL, LADDER, PLATFORM, WALL, JUMP_PAD, WALL, PLATFORM, WALL, WALL}, {WALL, LADDER, LADDER, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, WALL, WALL, WALL, LADDER, PLATFORM, EMPTY, EMPTY, WALL, EMPTY, LADDER, WALL, LADDER, EMPTY, EMPTY, LADDER, JUMP_PAD, JUMP_PAD, PLATFORM, WALL}, {WALL, LADDER, JUMP_PAD, LADDER, EMPTY, JUMP_PAD, LADDER, JUMP_PAD, WALL, EMPTY, LADDER, EMPTY, PLATFORM, JUMP_PAD, PLATFORM, JUMP_PAD, WALL, PLATFORM, LADDER, LADDER, WALL, PLATFORM, LADDER, LADDER, EMPTY, PLATFORM, EMPTY, WALL, EMPTY, WALL}, {WALL, WALL, PLATFORM, WALL, WALL, LADDER, WALL, WALL, LADDER, EMPTY, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, JUMP_PAD, PLATFORM, PLATFORM, EMPTY, LADDER, LADDER, PLATFORM, JUMP_PAD, EMPTY, WALL, LADDER, EMPTY, JUMP_PAD, WALL, LADDER, WALL}, {WALL, PLATFORM, LADDER, LADDER, EMPTY, EMPTY, PLATFORM, LADDER, WALL, EMPTY, JUMP_PAD, PLATFORM, LADDER, JUMP_PAD, LADDER, LADDER, WALL, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, LADDER, EMPTY, EMPTY, LADDER, WALL, WALL, PLATFORM, WALL}, {WALL, LADDER, PLATFORM, WALL, PLATFORM, WALL, JUMP_PAD, PLATFORM, EMPTY, EMPTY, LADDER, JUMP_PAD, WALL, WALL, EMPTY, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, LADDER, PLATFORM, LADDER, JUMP_PAD, LADDER, WALL, EMPTY, EMPTY, EMPTY, WALL}, {WALL, WALL, WALL, WALL, WALL, WALL, WALL, JUMP_PAD, EMPTY, EMPTY, LADDER, JUMP_PAD, LADDER, LADDER, JUMP_PAD, JUMP_PAD, WALL, JUMP_PAD, WALL, JUMP_PAD, LADDER, JUMP_PAD, WALL, EMPTY, WALL, JUMP_PAD, EMPTY, JUMP_PAD, JUMP_PAD, WALL}, {WALL, EMPTY, JUMP_PAD, EMPTY, JUMP_PAD, PLATFORM, PLATFORM, WALL, JUMP_PAD, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, WALL, LADDER, LADDER, PLATFORM, JUMP_PAD, WALL, PLATFORM, EMPTY, LADDER, WALL, LADDER, PLATFORM, EMPTY, PLATFORM, LADDER, WALL, WALL}, {WALL, EMPTY, LADDER, EMPTY, LADDER, PLATFORM, WALL, WALL, EMPTY, PLATFORM, WALL, PLATFORM, WALL, JUMP_PAD, WALL, WALL, PLATFORM, JUMP_PAD, WALL, PLATFORM, EMPTY, WALL, LADDER, PLATFORM, WALL, JUMP_PAD, LADDER, JUMP_PAD, WALL, WALL}, {WALL, WALL, WALL, LADDER, LADDER, PLATFORM, EMPTY, LADDER, EMPTY, JUMP_PAD, WALL, LADDER, LADDER, JUMP_PAD, WALL, JUMP_PAD, EMPTY, PLATFORM, JUMP_PAD, PLATFORM, JUMP_PAD, JUMP_PAD, LADDER, JUMP_PAD, PLATFORM, PLATFORM, LADDER, JUMP_PAD, PLATFORM, WALL}, {WALL, WALL, PLATFORM, WALL, PLATFORM, WALL, WALL, JUMP_PAD, EMPTY, LADDER, EMPTY, LADDER, JUMP_PAD, JUMP_PAD, LADDER, JUMP_PAD, WALL, WALL, JUMP_PAD, PLATFORM, EMPTY, LADDER, EMPTY, PLATFORM, WALL, JUMP_PAD, LADDER, PLATFORM, LADDER, WALL}, {WALL, LADDER, PLATFORM, JUMP_PAD, EMPTY, JUMP_PAD, WALL, LADDER, EMPTY, JUMP_PAD, EMPTY, WALL, WALL, PLATFORM, EMPTY, WALL, JUMP_PAD, EMPTY, JUMP_PAD, WALL, JUMP_PAD, EMPTY, PLATFORM, JUMP_PAD, EMPTY, EMPTY, EMPTY, LADDER, JUMP_PAD, WALL}, {WALL, LADDER, EMPTY, LADDER, LADDER, EMPTY, PLATFORM, PLATFORM, WALL, JUMP_PAD, PLATFORM, EMPTY, PLATFORM, EMPTY, JUMP_PAD, JUMP_PAD, WALL, LADDER, LADDER, LADDER, PLATFORM, JUMP_PAD, WALL, EMPTY, WALL, LADDER, JUMP_PAD, EMPTY, JUMP_PAD, WALL}, {WALL, LADDER, WALL, PLATFORM, WALL, WALL, WALL, JUMP_PAD, PLATFORM, JUMP_PAD, EMPTY, LADDER, EMPTY, PLATFORM, PLATFORM, WALL, LADDER, WALL, PLATFORM, WALL, EMPTY, PLATFORM, JUMP_PAD, PLATFORM, LADDER, JUMP_PAD, WALL, WALL, JUMP_PAD, WALL}, {WALL, JUMP_PAD, LADDER, LADDER, LADDER, EMPTY, EMPTY, JUMP_PAD, LADDER, JUMP_PAD, WALL, PLATFORM, EMPTY, WALL, JUMP_PAD, LADDER, EMPTY, LADDER, EMPTY, PLATFORM, LADDER, WALL, LADDER, EMPTY, EMPTY, WALL, JUMP_PAD, EMPTY, JUMP_PAD, WALL}, {WALL, EMPTY, EMPTY, WALL, JUMP_PAD, WALL, WALL, JUMP_PAD, LADDER, EMPTY, WALL, EMPTY, PLATFORM, LADDER, LADDER, WALL, LADDER, EMPTY, EMPTY, EMPTY, LADDER, LADDER, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, LADDER, EMPTY, LADDER, WALL}, {WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}};
-        Simulator simulator = new Simulator(map, (int) 6000.0, 1);
         List<UnitState> expected = Arrays.asList(
                 new UnitState(new Point(15.501360743369583, 14.998333333333333), 0.525, true, false),
                 new UnitState(new Point(15.502721486739166, 15.001666666666667), 0.5248333333333334, true, false),
@@ -992,65 +997,67 @@ public class StressTest {
                 new UnitState(new Point(15.534490501683553, 15.98666666666697), 0.0, false, false)
         );
         Plan plan = new Plan()
-                .add(8, new MoveAction(8.164460217496135, false, false))
-                .add(0, new MoveAction(9.247625938174004, false, true))
-                .add(5, new MoveAction(-1.1006037998936442, false, true))
-                .add(1, new MoveAction(-7.392555873025273, false, false))
-                .add(2, new MoveAction(3.2886859016082894, true, false))
-                .add(14, new MoveAction(-3.705122490207742, false, false))
-                .add(4, new MoveAction(1.728185044782741, false, false))
-                .add(17, new MoveAction(4.250146268911493, false, false))
-                .add(6, new MoveAction(7.914930589868806, false, false))
-                .add(10, new MoveAction(-0.6169353036923493, false, false))
-                .add(16, new MoveAction(2.5068930131824185, true, false))
-                .add(9, new MoveAction(6.3684649069349035, false, true))
-                .add(8, new MoveAction(-1.648654838101443, false, false))
-                .add(18, new MoveAction(-4.9904252970478264, true, false))
-                .add(5, new MoveAction(2.9416494267552107, false, true))
-                .add(8, new MoveAction(6.479524817708224, true, false))
-                .add(6, new MoveAction(0.9692751477343986, false, true))
-                .add(8, new MoveAction(-7.729299195536486, false, false))
-                .add(0, new MoveAction(2.6699048954835174, false, true))
-                .add(17, new MoveAction(-1.1738175994275437, false, true))
-                .add(1, new MoveAction(-7.8804898394246825, false, true))
-                .add(3, new MoveAction(9.597043194347638, false, true))
-                .add(10, new MoveAction(3.718309498430422, false, true))
-                .add(10, new MoveAction(-9.336181766736562, false, false))
-                .add(14, new MoveAction(-5.1924349781808115, false, false))
-                .add(10, new MoveAction(-3.9200250823992233, false, true))
-                .add(19, new MoveAction(7.696180111720409, true, false))
-                .add(13, new MoveAction(-5.2602434658667345, true, false))
-                .add(6, new MoveAction(5.331120545816663, false, true))
-                .add(14, new MoveAction(1.8422964771012573, true, false))
-                .add(19, new MoveAction(1.4276915941547195, false, false))
-                .add(6, new MoveAction(-5.081563798579349, true, false))
-                .add(19, new MoveAction(8.082744575693965, false, false))
-                .add(7, new MoveAction(6.906205758619709, true, false))
-                .add(0, new MoveAction(-8.274085305759868, false, true))
-                .add(3, new MoveAction(-3.094538547123884, false, false))
-                .add(13, new MoveAction(1.7210246649382235, false, false))
-                .add(11, new MoveAction(3.0117067156464152, false, false))
-                .add(17, new MoveAction(-4.98817936331635, false, false))
-                .add(13, new MoveAction(1.0236494347177167, false, true))
-                .add(10, new MoveAction(4.913231654992607, false, true))
-                .add(8, new MoveAction(7.838582415903112, true, false))
-                .add(19, new MoveAction(-7.518613571997237, false, true))
-                .add(5, new MoveAction(-1.0057901732310945, false, false))
-                .add(0, new MoveAction(-5.147357585688994, false, true))
-                .add(5, new MoveAction(-3.914940085948489, true, false))
-                .add(6, new MoveAction(6.523917114013457, false, true))
-                .add(19, new MoveAction(1.6761745578123044, false, true))
-                .add(10, new MoveAction(-3.246354391520483, false, true))
-                .add(16, new MoveAction(-3.1437162392192626, true, false));
-        List<UnitState> actual = simulator.simulate(start, plan);
-        assertEquals(actual, expected);
+                .add(8, MoveAction.of(8.164460217496135, false, false))
+                .add(0, MoveAction.of(9.247625938174004, false, true))
+                .add(5, MoveAction.of(-1.1006037998936442, false, true))
+                .add(1, MoveAction.of(-7.392555873025273, false, false))
+                .add(2, MoveAction.of(3.2886859016082894, true, false))
+                .add(14, MoveAction.of(-3.705122490207742, false, false))
+                .add(4, MoveAction.of(1.728185044782741, false, false))
+                .add(17, MoveAction.of(4.250146268911493, false, false))
+                .add(6, MoveAction.of(7.914930589868806, false, false))
+                .add(10, MoveAction.of(-0.6169353036923493, false, false))
+                .add(16, MoveAction.of(2.5068930131824185, true, false))
+                .add(9, MoveAction.of(6.3684649069349035, false, true))
+                .add(8, MoveAction.of(-1.648654838101443, false, false))
+                .add(18, MoveAction.of(-4.9904252970478264, true, false))
+                .add(5, MoveAction.of(2.9416494267552107, false, true))
+                .add(8, MoveAction.of(6.479524817708224, true, false))
+                .add(6, MoveAction.of(0.9692751477343986, false, true))
+                .add(8, MoveAction.of(-7.729299195536486, false, false))
+                .add(0, MoveAction.of(2.6699048954835174, false, true))
+                .add(17, MoveAction.of(-1.1738175994275437, false, true))
+                .add(1, MoveAction.of(-7.8804898394246825, false, true))
+                .add(3, MoveAction.of(9.597043194347638, false, true))
+                .add(10, MoveAction.of(3.718309498430422, false, true))
+                .add(10, MoveAction.of(-9.336181766736562, false, false))
+                .add(14, MoveAction.of(-5.1924349781808115, false, false))
+                .add(10, MoveAction.of(-3.9200250823992233, false, true))
+                .add(19, MoveAction.of(7.696180111720409, true, false))
+                .add(13, MoveAction.of(-5.2602434658667345, true, false))
+                .add(6, MoveAction.of(5.331120545816663, false, true))
+                .add(14, MoveAction.of(1.8422964771012573, true, false))
+                .add(19, MoveAction.of(1.4276915941547195, false, false))
+                .add(6, MoveAction.of(-5.081563798579349, true, false))
+                .add(19, MoveAction.of(8.082744575693965, false, false))
+                .add(7, MoveAction.of(6.906205758619709, true, false))
+                .add(0, MoveAction.of(-8.274085305759868, false, true))
+                .add(3, MoveAction.of(-3.094538547123884, false, false))
+                .add(13, MoveAction.of(1.7210246649382235, false, false))
+                .add(11, MoveAction.of(3.0117067156464152, false, false))
+                .add(17, MoveAction.of(-4.98817936331635, false, false))
+                .add(13, MoveAction.of(1.0236494347177167, false, true))
+                .add(10, MoveAction.of(4.913231654992607, false, true))
+                .add(8, MoveAction.of(7.838582415903112, true, false))
+                .add(19, MoveAction.of(-7.518613571997237, false, true))
+                .add(5, MoveAction.of(-1.0057901732310945, false, false))
+                .add(0, MoveAction.of(-5.147357585688994, false, true))
+                .add(5, MoveAction.of(-3.914940085948489, true, false))
+                .add(6, MoveAction.of(6.523917114013457, false, true))
+                .add(19, MoveAction.of(1.6761745578123044, false, true))
+                .add(10, MoveAction.of(-3.246354391520483, false, true))
+                .add(16, MoveAction.of(-3.1437162392192626, true, false));
+        return new Scenario(start, map, 6000, 1, plan, expected);
     }
 
     @Test
     void test3() {
+        scenario3().check();
+    }
+
+    static Scenario scenario3() {
         UnitState start = new UnitState(new Point(15.5, 15.0), 0.0, false, false);
         Tile[][] map = new Tile[][]{{WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}, {WALL, PLATFORM, JUMP_PAD, PLATFORM, LADDER, WALL, EMPTY, JUMP_PAD, EMPTY, JUMP_PAD, LADDER, JUMP_PAD, LADDER, PLATFORM, JUMP_PAD, PLATFORM, PLATFORM, LADDER, JUMP_PAD, PLATFORM, LADDER, LADDER, PLATFORM, WALL, EMPTY, PLATFORM, PLATFORM, EMPTY, WALL, WALL}, {WALL, LADDER, JUMP_PAD, LADDER, LADDER, JUMP_PAD, PLATFORM, EMPTY, JUMP_PAD, LADDER, EMPTY, WALL, PLATFORM, PLATFORM, WALL, LADDER, EMPTY, PLATFORM, EMPTY, EMPTY, WALL, JUMP_PAD, JUMP_PAD, WALL, JUMP_PAD, JUMP_PAD, WALL, EMPTY, EMPTY, WALL}, {WALL, PLATFORM, LADDER, LADDER, LADDER, LADDER, WALL, WALL, PLATFORM, PLATFORM, LADDER, PLATFORM, WALL, JUMP_PAD, JUMP_PAD, WALL, JUMP_PAD, LADDER, JUMP_PAD, WALL, LADDER, EMPTY, PLATFORM, EMPTY, PLATFORM, WALL, LADDER, JUMP_PAD, PLATFORM, WALL}, {WALL, WALL, JUMP_PAD, PLATFORM, WALL, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, LADDER, LADDER, PLATFORM, LADDER, JUMP_PAD, WALL, PLATFORM, PLATFORM, LADDER, JUMP_PAD, PLATFORM, PLATFORM, LADDER, LADDER, PLATFORM, LADDER, JUMP_PAD, JUMP_PAD, JUMP_PAD, EMPTY, WALL}, {WALL, PLATFORM, LADDER, JUMP_PAD, LADDER, WALL, WALL, EMPTY, LADDER, PLATFORM, JUMP_PAD, LADDER, JUMP_PAD, JUMP_PAD, PLATFORM, WALL, EMPTY, LADDER, EMPTY, JUMP_PAD, WALL, EMPTY, WALL, JUMP_PAD, EMPTY, JUMP_PAD, PLATFORM, EMPTY, JUMP_PAD, WALL}, {WALL, LADDER, EMPTY, WALL, PLATFORM, JUMP_PAD, JUMP_PAD, PLATFORM, LADDER, WALL, EMPTY, WALL, EMPTY, LADDER, WALL, LADDER, PLATFORM, PLATFORM, EMPTY, JUMP_PAD, WALL, PLATFORM, LADDER, LADDER, LADDER, WALL, JUMP_PAD, LADDER, WALL, WALL}, {WALL, LADDER, EMPTY, JUMP_PAD, JUMP_PAD, WALL, WALL, PLATFORM, WALL, LADDER, WALL, PLATFORM, PLATFORM, WALL, WALL, WALL, WALL, PLATFORM, JUMP_PAD, PLATFORM, JUMP_PAD, EMPTY, LADDER, EMPTY, WALL, LADDER, PLATFORM, WALL, LADDER, WALL}, {WALL, EMPTY, LADDER, JUMP_PAD, PLATFORM, JUMP_PAD, LADDER, LADDER, PLATFORM, EMPTY, LADDER, EMPTY, WALL, LADDER, PLATFORM, LADDER, PLATFORM, WALL, PLATFORM, JUMP_PAD, LADDER, WALL, WALL, PLATFORM, PLATFORM, JUMP_PAD, PLATFORM, LADDER, EMPTY, WALL}, {WALL, WALL, EMPTY, PLATFORM, JUMP_PAD, EMPTY, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, EMPTY, WALL, EMPTY, PLATFORM, EMPTY, WALL, EMPTY, JUMP_PAD, JUMP_PAD, LADDER, WALL, LADDER, JUMP_PAD, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, WALL}, {WALL, JUMP_PAD, JUMP_PAD, PLATFORM, EMPTY, LADDER, EMPTY, WALL, PLATFORM, JUMP_PAD, JUMP_PAD, PLATFORM, LADDER, LADDER, PLATFORM, EMPTY, WALL, EMPTY, LADDER, PLATFORM, WALL, LADDER, PLATFORM, WALL, LADDER, LADDER, LADDER, WALL, LADDER, WALL}, {WALL, EMPTY, LADDER, LADDER, WALL, WALL, PLATFORM, JUMP_PAD, EMPTY, WALL, PLATFORM, PLATFORM, JUMP_PAD, JUMP_PAD, EMPTY, PLATFORM, PLATFORM, LADDER, LADDER, LADDER, EMPTY, EMPTY, LADDER, LADDER, LADDER, PLATFORM, WALL, JUMP_PAD, JUMP_PAD, WALL}, {WALL, LADDER, LADDER, JUMP_PAD, PLATFORM, WALL, JUMP_PAD, PLATFORM, JUMP_PAD, PLATFORM, WALL, PLATFORM, WALL, PLATFORM, JUMP_PAD, LADDER, WALL, LADDER, WALL, EMPTY, WALL, WALL, EMPTY, LADDER, PLATFORM, LADDER, PLATFORM, PLATFORM, EMPTY, WALL}, {WALL, EMPTY, JUMP_PAD, PLATFORM, JUMP_PAD, EMPTY, LADDER, EMPTY, PLATFORM, WALL, JUMP_PAD, PLATFORM, PLATFORM, PLATFORM, WALL, EMPTY, PLATFORM, EMPTY, JUMP_PAD, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, EMPTY, EMPTY, EMPTY, WALL, EMPTY, EMPTY, WALL}, {WALL, JUMP_PAD, LADDER, PLATFORM, PLATFORM, WALL, WALL, EMPTY, PLATFORM, JUMP_PAD, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, LADDER, LADDER, EMPTY, EMPTY, JUMP_PAD, LADDER, LADDER, EMPTY, JUMP_PAD, WALL, LADDER, PLATFORM, LADDER, WALL, WALL}, {WALL, JUMP_PAD, LADDER, PLATFORM, EMPTY, LADDER, PLATFORM, WALL, EMPTY, EMPTY, EMPTY, LADDER, JUMP_PAD, PLATFORM, WALL, EMPTY, EMPTY, LADDER, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, WALL, PLATFORM, JUMP_PAD, WALL, PLATFORM, JUMP_PAD, LADDER, WALL}, {WALL, LADDER, LADDER, PLATFORM, PLATFORM, WALL, WALL, PLATFORM, EMPTY, LADDER, PLATFORM, LADDER, JUMP_PAD, LADDER, PLATFORM, WALL, PLATFORM, WALL, EMPTY, LADDER, LADDER, JUMP_PAD, EMPTY, EMPTY, WALL, JUMP_PAD, LADDER, JUMP_PAD, EMPTY, WALL}, {WALL, WALL, EMPTY, JUMP_PAD, EMPTY, PLATFORM, JUMP_PAD, WALL, JUMP_PAD, JUMP_PAD, WALL, EMPTY, LADDER, EMPTY, WALL, PLATFORM, LADDER, JUMP_PAD, LADDER, LADDER, JUMP_PAD, PLATFORM, JUMP_PAD, LADDER, LADDER, LADDER, PLATFORM, WALL, JUMP_PAD, WALL}, {WALL, WALL, PLATFORM, EMPTY, EMPTY, WALL, WALL, LADDER, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, PLATFORM, EMPTY, PLATFORM, WALL, LADDER, EMPTY, PLATFORM, WALL, PLATFORM, WALL, JUMP_PAD, PLATFORM, LADDER, PLATFORM, LADDER, PLATFORM, WALL}, {WALL, JUMP_PAD, LADDER, PLATFORM, WALL, WALL, EMPTY, WALL, JUMP_PAD, EMPTY, LADDER, EMPTY, PLATFORM, LADDER, PLATFORM, WALL, JUMP_PAD, WALL, EMPTY, LADDER, EMPTY, EMPTY, JUMP_PAD, WALL, WALL, PLATFORM, PLATFORM, LADDER, LADDER, WALL}, {WALL, PLATFORM, WALL, EMPTY, PLATFORM, JUMP_PAD, EMPTY, LADDER, JUMP_PAD, JUMP_PAD, JUMP_PAD, PLATFORM, JUMP_PAD, EMPTY, EMPTY, LADDER, JUMP_PAD, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, LADDER, LADDER, WALL, EMPTY, WALL, PLATFORM, WALL, WALL}, {WALL, EMPTY, PLATFORM, PLATFORM, PLATFORM, LADDER, WALL, EMPTY, WALL, WALL, JUMP_PAD, EMPTY, LADDER, PLATFORM, PLATFORM, WALL, WALL, PLATFORM, PLATFORM, WALL, PLATFORM, LADDER, WALL, WALL, JUMP_PAD, EMPTY, WALL, EMPTY, JUMP_PAD, WALL}, {WALL, PLATFORM, LADDER, PLATFORM, WALL, PLATFORM, LADDER, JUMP_PAD, WALL, WALL, PLATFORM, LADDER, EMPTY, LADDER, PLATFORM, WALL, LADDER, JUMP_PAD, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, PLATFORM, LADDER, LADDER, PLATFORM, EMPTY, LADDER, WALL, WALL}, {WALL, LADDER, EMPTY, WALL, JUMP_PAD, LADDER, WALL, WALL, JUMP_PAD, EMPTY, LADDER, EMPTY, EMPTY, JUMP_PAD, LADDER, LADDER, JUMP_PAD, LADDER, JUMP_PAD, WALL, LADDER, LADDER, PLATFORM, JUMP_PAD, WALL, EMPTY, LADDER, EMPTY, LADDER, WALL}, {WALL, PLATFORM, WALL, LADDER, WALL, WALL, EMPTY, LADDER, EMPTY, WALL, EMPTY, JUMP_PAD, EMPTY, LADDER, JUMP_PAD, LADDER, EMPTY, PLATFORM, JUMP_PAD, LADDER, LADDER, LADDER, PLATFORM, EMPTY, JUMP_PAD, LADDER, LADDER, PLATFORM, EMPTY, WALL}, {WALL, PLATFORM, WALL, PLATFORM, EMPTY, LADDER, JUMP_PAD, JUMP_PAD, PLATFORM, EMPTY, EMPTY, LADDER, JUMP_PAD, WALL, LADDER, LADDER, LADDER, LADDER, PLATFORM, EMPTY, WALL, EMPTY, WALL, LADDER, JUMP_PAD, PLATFORM, PLATFORM, EMPTY, PLATFORM, WALL}, {WALL, WALL, LADDER, WALL, LADDER, EMPTY, WALL, WALL, JUMP_PAD, WALL, PLATFORM, LADDER, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, EMPTY, JUMP_PAD, PLATFORM, EMPTY, LADDER, WALL, EMPTY, LADDER, PLATFORM, LADDER, LADDER, WALL}, {WALL, WALL, PLATFORM, LADDER, LADDER, WALL, PLATFORM, LADDER, WALL, JUMP_PAD, EMPTY, JUMP_PAD, PLATFORM, WALL, EMPTY, JUMP_PAD, PLATFORM, PLATFORM, JUMP_PAD, WALL, PLATFORM, WALL, LADDER, LADDER, JUMP_PAD, JUMP_PAD, WALL, PLATFORM, JUMP_PAD, WALL}, {WALL, WALL, EMPTY, LADDER, JUMP_PAD, PLATFORM, WALL, EMPTY, WALL, EMPTY, JUMP_PAD, JUMP_PAD, WALL, WALL, EMPTY, WALL, LADDER, JUMP_PAD, JUMP_PAD, WALL, WALL, WALL, PLATFORM, PLATFORM, PLATFORM, JUMP_PAD, PLATFORM, EMPTY, EMPTY, WALL}, {WALL, WALL, PLATFORM, PLATFORM, EMPTY, WALL, PLATFORM, PLATFORM, WALL, JUMP_PAD, WALL, LADDER, EMPTY, EMPTY, PLATFORM, WALL, WALL, WALL, EMPTY, PLATFORM, WALL, PLATFORM, JUMP_PAD, WALL, LADDER, WALL, WALL, EMPTY, PLATFORM, WALL}, {WALL, EMPTY, LADDER, JUMP_PAD, LADDER, JUMP_PAD, LADDER, WALL, EMPTY, LADDER, PLATFORM, JUMP_PAD, WALL, JUMP_PAD, WALL, JUMP_PAD, EMPTY, EMPTY, WALL, WALL, EMPTY, EMPTY, EMPTY, PLATFORM, WALL, EMPTY, EMPTY, WALL, WALL, WALL}, {WALL, EMPTY, EMPTY, EMPTY, WALL, PLATFORM, PLATFORM, LADDER, JUMP_PAD, WALL, JUMP_PAD, WALL, EMPTY, PLATFORM, EMPTY, PLATFORM, WALL, WALL, WALL, WALL, PLATFORM, EMPTY, JUMP_PAD, EMPTY, WALL, WALL, JUMP_PAD, PLATFORM, PLATFORM, WALL}, {WALL, EMPTY, LADDER, LADDER, JUMP_PAD, LADDER, LADDER, JUMP_PAD, LADDER, JUMP_PAD, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, EMPTY, WALL, EMPTY, WALL, JUMP_PAD, LADDER, WALL, JUMP_PAD, EMPTY, EMPTY, EMPTY, WALL}, {WALL, WALL, EMPTY, JUMP_PAD, JUMP_PAD, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, JUMP_PAD, PLATFORM, LADDER, LADDER, LADDER, LADDER, PLATFORM, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, LADDER, JUMP_PAD, LADDER, JUMP_PAD, JUMP_PAD, PLATFORM, WALL, JUMP_PAD, WALL}, {WALL, JUMP_PAD, JUMP_PAD, LADDER, EMPTY, LADDER, LADDER, PLATFORM, EMPTY, WALL, WALL, LADDER, WALL, EMPTY, PLATFORM, PLATFORM, LADDER, JUMP_PAD, WALL, JUMP_PAD, EMPTY, EMPTY, PLATFORM, LADDER, LADDER, EMPTY, LADDER, JUMP_PAD, WALL, WALL}, {WALL, JUMP_PAD, JUMP_PAD, EMPTY, WALL, JUMP_PAD, EMPTY, PLATFORM, PLATFORM, LADDER, LADDER, JUMP_PAD, WALL, WALL, WALL, WALL, WALL, JUMP_PAD, JUMP_PAD, PLATFORM, JUMP_PAD, LADDER, EMPTY, PLATFORM, LADDER, JUMP_PAD, WALL, WALL, EMPTY, WALL}, {WALL, WALL, PLATFORM, PLATFORM, WALL, JUMP_PAD, JUMP_PAD, LADDER, WALL, LADDER, PLATFORM, EMPTY, PLATFORM, WALL, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, JUMP_PAD, LADDER, LADDER, EMPTY, WALL, PLATFORM, WALL, JUMP_PAD, PLATFORM, EMPTY, WALL}, {WALL, WALL, WALL, JUMP_PAD, WALL, EMPTY, PLATFORM, EMPTY, WALL, LADDER, WALL, LADDER, PLATFORM, LADDER, PLATFORM, EMPTY, JUMP_PAD, WALL, EMPTY, PLATFORM, JUMP_PAD, JUMP_PAD, JUMP_PAD, WALL, JUMP_PAD, PLATFORM, EMPTY, EMPTY, JUMP_PAD, WALL}, {WALL, EMPTY, WALL, JUMP_PAD, WALL, EMPTY, WALL, EMPTY, WALL, WALL, JUMP_PAD, JUMP_PAD, WALL, WALL, EMPTY, EMPTY, EMPTY, EMPTY, LADDER, JUMP_PAD, EMPTY, LADDER, JUMP_PAD, EMPTY, PLATFORM, PLATFORM, LADDER, EMPTY, JUMP_PAD, WALL}, {WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}};
-        Simulator simulator = new Simulator(map, (int) 6000.0, 1);
         List<UnitState> expected = Arrays.asList(
                 new UnitState(new Point(15.498990294306228, 15.0), 0.55, true, true),
                 new UnitState(new Point(15.497980588612457, 15.001666666666667), 0.5498333333333334, true, true),
@@ -1465,66 +1472,69 @@ public class StressTest {
                 new UnitState(new Point(15.466985443229282, 15.0), 0.55, true, true)
         );
         Plan plan = new Plan()
-                .add(4, new MoveAction(-6.058234162634579, true, false))
-                .add(1, new MoveAction(6.727330666280341, true, false))
-                .add(3, new MoveAction(-5.6482621831551505, false, true))
-                .add(15, new MoveAction(3.276488491440583, false, false))
-                .add(0, new MoveAction(5.341262581613249, true, false))
-                .add(8, new MoveAction(-7.979006580100016, false, true))
-                .add(15, new MoveAction(-3.153443819505293, false, false))
-                .add(3, new MoveAction(-3.5947861487003436, false, true))
-                .add(10, new MoveAction(-3.9485654170095668, true, false))
-                .add(14, new MoveAction(-9.930069529860098, false, true))
-                .add(7, new MoveAction(-7.674131703774789, false, true))
-                .add(5, new MoveAction(8.759850876826615, false, false))
-                .add(7, new MoveAction(-9.652388623741226, true, false))
-                .add(3, new MoveAction(8.819057373200913, false, false))
-                .add(1, new MoveAction(8.553521429262922, true, false))
-                .add(16, new MoveAction(9.235431021133007, true, false))
-                .add(6, new MoveAction(4.227322339929904, true, false))
-                .add(17, new MoveAction(-0.08221686159477493, true, false))
-                .add(10, new MoveAction(-1.184264268795932, true, false))
-                .add(7, new MoveAction(2.7370525798223753, false, false))
-                .add(2, new MoveAction(-2.5249429279305495, true, false))
-                .add(12, new MoveAction(-6.16438850953231, true, false))
-                .add(12, new MoveAction(5.385400558446779, false, false))
-                .add(0, new MoveAction(-4.193651622718802, false, false))
-                .add(6, new MoveAction(0.030008430204379266, false, false))
-                .add(8, new MoveAction(6.565883639894611, false, true))
-                .add(6, new MoveAction(3.422164590920975, false, true))
-                .add(14, new MoveAction(8.093903498901948, false, true))
-                .add(6, new MoveAction(-8.827586328185182, true, false))
-                .add(10, new MoveAction(-7.316725708672347, true, false))
-                .add(1, new MoveAction(-3.676058516662124, false, false))
-                .add(2, new MoveAction(-3.0567589052036954, true, false))
-                .add(8, new MoveAction(-4.955870230000043, true, false))
-                .add(18, new MoveAction(4.520677132060406, false, true))
-                .add(14, new MoveAction(-1.454544462104133, false, true))
-                .add(0, new MoveAction(7.3520101502933315, true, false))
-                .add(7, new MoveAction(1.019057595741252, false, false))
-                .add(5, new MoveAction(2.2310973419979874, false, true))
-                .add(12, new MoveAction(6.899454346071018, false, true))
-                .add(2, new MoveAction(4.575991609652885, false, false))
-                .add(13, new MoveAction(2.4390482101318938, false, true))
-                .add(16, new MoveAction(4.5001803637415065, true, false))
-                .add(5, new MoveAction(6.356212441394188, false, true))
-                .add(19, new MoveAction(-8.35844578490837, false, true))
-                .add(17, new MoveAction(-7.769090316713953, false, true))
-                .add(14, new MoveAction(-5.325000608549049, false, true))
-                .add(12, new MoveAction(1.3569491855527538, false, true))
-                .add(5, new MoveAction(-0.9678192311112532, false, false))
-                .add(8, new MoveAction(-1.0798554459469774, false, true))
-                .add(5, new MoveAction(2.074728283970952, false, true));
-        List<UnitState> actual = simulator.simulate(start, plan);
-        assertEquals(actual, expected);
+                .add(4, MoveAction.of(-6.058234162634579, true, false))
+                .add(1, MoveAction.of(6.727330666280341, true, false))
+                .add(3, MoveAction.of(-5.6482621831551505, false, true))
+                .add(15, MoveAction.of(3.276488491440583, false, false))
+                .add(0, MoveAction.of(5.341262581613249, true, false))
+                .add(8, MoveAction.of(-7.979006580100016, false, true))
+                .add(15, MoveAction.of(-3.153443819505293, false, false))
+                .add(3, MoveAction.of(-3.5947861487003436, false, true))
+                .add(10, MoveAction.of(-3.9485654170095668, true, false))
+                .add(14, MoveAction.of(-9.930069529860098, false, true))
+                .add(7, MoveAction.of(-7.674131703774789, false, true))
+                .add(5, MoveAction.of(8.759850876826615, false, false))
+                .add(7, MoveAction.of(-9.652388623741226, true, false))
+                .add(3, MoveAction.of(8.819057373200913, false, false))
+                .add(1, MoveAction.of(8.553521429262922, true, false))
+                .add(16, MoveAction.of(9.235431021133007, true, false))
+                .add(6, MoveAction.of(4.227322339929904, true, false))
+                .add(17, MoveAction.of(-0.08221686159477493, true, false))
+                .add(10, MoveAction.of(-1.184264268795932, true, false))
+                .add(7, MoveAction.of(2.7370525798223753, false, false))
+                .add(2, MoveAction.of(-2.5249429279305495, true, false))
+                .add(12, MoveAction.of(-6.16438850953231, true, false))
+                .add(12, MoveAction.of(5.385400558446779, false, false))
+                .add(0, MoveAction.of(-4.193651622718802, false, false))
+                .add(6, MoveAction.of(0.030008430204379266, false, false))
+                .add(8, MoveAction.of(6.565883639894611, false, true))
+                .add(6, MoveAction.of(3.422164590920975, false, true))
+                .add(14, MoveAction.of(8.093903498901948, false, true))
+                .add(6, MoveAction.of(-8.827586328185182, true, false))
+                .add(10, MoveAction.of(-7.316725708672347, true, false))
+                .add(1, MoveAction.of(-3.676058516662124, false, false))
+                .add(2, MoveAction.of(-3.0567589052036954, true, false))
+                .add(8, MoveAction.of(-4.955870230000043, true, false))
+                .add(18, MoveAction.of(4.520677132060406, false, true))
+                .add(14, MoveAction.of(-1.454544462104133, false, true))
+                .add(0, MoveAction.of(7.3520101502933315, true, false))
+                .add(7, MoveAction.of(1.019057595741252, false, false))
+                .add(5, MoveAction.of(2.2310973419979874, false, true))
+                .add(12, MoveAction.of(6.899454346071018, false, true))
+                .add(2, MoveAction.of(4.575991609652885, false, false))
+                .add(13, MoveAction.of(2.4390482101318938, false, true))
+                .add(16, MoveAction.of(4.5001803637415065, true, false))
+                .add(5, MoveAction.of(6.356212441394188, false, true))
+                .add(19, MoveAction.of(-8.35844578490837, false, true))
+                .add(17, MoveAction.of(-7.769090316713953, false, true))
+                .add(14, MoveAction.of(-5.325000608549049, false, true))
+                .add(12, MoveAction.of(1.3569491855527538, false, true))
+                .add(5, MoveAction.of(-0.9678192311112532, false, false))
+                .add(8, MoveAction.of(-1.0798554459469774, false, true))
+                .add(5, MoveAction.of(2.074728283970952, false, true));
+        return new Scenario(start, map, 6000, 1, plan, expected);
     }
 
     @Test
     void test4() {
+        Scenario scenario = scenario4();
+        Utils.printMap(scenario.map, scenario.start.position);
+        scenario.check();
+    }
+
+    static Scenario scenario4() {
         UnitState start = new UnitState(new Point(15.5, 15.0), 0.0, false, false);
         Tile[][] map = new Tile[][]{{WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}, {WALL, LADDER, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, WALL, WALL, PLATFORM, WALL, EMPTY, PLATFORM, WALL, LADDER, PLATFORM, PLATFORM, PLATFORM, WALL, WALL, LADDER, PLATFORM, PLATFORM, WALL, WALL}, {WALL, WALL, PLATFORM, LADDER, EMPTY, LADDER, EMPTY, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, LADDER, PLATFORM, PLATFORM, EMPTY, PLATFORM, WALL, PLATFORM, LADDER, LADDER, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, LADDER, PLATFORM, WALL}, {WALL, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, LADDER, LADDER, PLATFORM, LADDER, EMPTY, WALL, EMPTY, PLATFORM, EMPTY, PLATFORM, WALL, WALL, EMPTY, PLATFORM, WALL, WALL, EMPTY, LADDER, EMPTY, PLATFORM, PLATFORM, WALL, WALL, WALL}, {WALL, WALL, WALL, PLATFORM, PLATFORM, WALL, PLATFORM, PLATFORM, EMPTY, LADDER, PLATFORM, PLATFORM, LADDER, LADDER, LADDER, WALL, WALL, LADDER, LADDER, WALL, EMPTY, LADDER, PLATFORM, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, WALL, WALL}, {WALL, EMPTY, PLATFORM, PLATFORM, WALL, EMPTY, EMPTY, LADDER, PLATFORM, WALL, LADDER, WALL, LADDER, PLATFORM, PLATFORM, PLATFORM, WALL, EMPTY, EMPTY, EMPTY, EMPTY, LADDER, PLATFORM, EMPTY, LADDER, EMPTY, WALL, PLATFORM, EMPTY, WALL}, {WALL, WALL, WALL, LADDER, WALL, WALL, WALL, LADDER, PLATFORM, PLATFORM, WALL, PLATFORM, PLATFORM, LADDER, PLATFORM, PLATFORM, LADDER, WALL, EMPTY, LADDER, LADDER, WALL, EMPTY, EMPTY, LADDER, PLATFORM, EMPTY, EMPTY, PLATFORM, WALL}, {WALL, LADDER, LADDER, EMPTY, PLATFORM, PLATFORM, WALL, EMPTY, PLATFORM, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, WALL, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, PLATFORM, WALL, PLATFORM, LADDER, WALL}, {WALL, PLATFORM, PLATFORM, LADDER, LADDER, LADDER, WALL, PLATFORM, LADDER, LADDER, PLATFORM, LADDER, PLATFORM, PLATFORM, EMPTY, LADDER, PLATFORM, PLATFORM, WALL, EMPTY, PLATFORM, EMPTY, LADDER, LADDER, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, EMPTY, WALL, PLATFORM, LADDER, PLATFORM, LADDER, PLATFORM, LADDER, LADDER, LADDER, PLATFORM, EMPTY, WALL, WALL, PLATFORM, PLATFORM, WALL, PLATFORM, EMPTY, LADDER, EMPTY, EMPTY, PLATFORM, PLATFORM, WALL, WALL}, {WALL, PLATFORM, LADDER, WALL, WALL, PLATFORM, WALL, PLATFORM, WALL, LADDER, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, LADDER, PLATFORM, WALL, PLATFORM, PLATFORM, WALL, WALL, PLATFORM, PLATFORM, WALL}, {WALL, WALL, LADDER, PLATFORM, PLATFORM, PLATFORM, WALL, WALL, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, EMPTY, LADDER, PLATFORM, EMPTY, PLATFORM, LADDER, EMPTY, LADDER, PLATFORM, WALL, PLATFORM, LADDER, LADDER, PLATFORM, PLATFORM, LADDER, WALL}, {WALL, LADDER, EMPTY, WALL, EMPTY, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, LADDER, PLATFORM, WALL, EMPTY, PLATFORM, LADDER, PLATFORM, LADDER, WALL, PLATFORM, LADDER, LADDER, LADDER, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, WALL}, {WALL, WALL, EMPTY, WALL, PLATFORM, PLATFORM, EMPTY, PLATFORM, WALL, EMPTY, EMPTY, PLATFORM, EMPTY, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, WALL, WALL, PLATFORM, WALL, PLATFORM, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, LADDER, WALL}, {WALL, PLATFORM, WALL, EMPTY, PLATFORM, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, LADDER, WALL, PLATFORM, EMPTY, PLATFORM, EMPTY, WALL, LADDER, LADDER, PLATFORM, EMPTY, LADDER, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, WALL, WALL}, {WALL, WALL, LADDER, LADDER, LADDER, PLATFORM, WALL, PLATFORM, PLATFORM, WALL, PLATFORM, EMPTY, LADDER, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, WALL, PLATFORM, WALL, PLATFORM, LADDER, WALL, PLATFORM, LADDER, LADDER, PLATFORM, WALL}, {WALL, LADDER, LADDER, PLATFORM, PLATFORM, WALL, PLATFORM, LADDER, WALL, PLATFORM, PLATFORM, WALL, PLATFORM, WALL, LADDER, LADDER, WALL, WALL, LADDER, WALL, WALL, PLATFORM, EMPTY, PLATFORM, PLATFORM, WALL, PLATFORM, LADDER, WALL, WALL}, {WALL, LADDER, EMPTY, WALL, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, WALL, WALL, LADDER, EMPTY, EMPTY, WALL, PLATFORM, WALL, PLATFORM, EMPTY, PLATFORM, WALL}, {WALL, WALL, PLATFORM, LADDER, PLATFORM, LADDER, PLATFORM, LADDER, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, WALL, WALL, WALL, PLATFORM, PLATFORM, LADDER, LADDER, PLATFORM, LADDER, LADDER, LADDER, LADDER, EMPTY, LADDER, LADDER, WALL}, {WALL, WALL, LADDER, WALL, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, LADDER, PLATFORM, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, WALL, PLATFORM, EMPTY, EMPTY, LADDER, PLATFORM, EMPTY, PLATFORM, LADDER, WALL}, {WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, LADDER, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, WALL, LADDER, EMPTY, PLATFORM, WALL, EMPTY, EMPTY, PLATFORM, WALL, PLATFORM, PLATFORM, PLATFORM, LADDER, PLATFORM, WALL, EMPTY, WALL}, {WALL, WALL, EMPTY, PLATFORM, PLATFORM, PLATFORM, WALL, LADDER, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, PLATFORM, PLATFORM, LADDER, WALL, WALL, LADDER, PLATFORM, PLATFORM, WALL, PLATFORM, WALL}, {WALL, PLATFORM, WALL, PLATFORM, WALL, PLATFORM, EMPTY, PLATFORM, WALL, PLATFORM, PLATFORM, EMPTY, PLATFORM, WALL, LADDER, EMPTY, WALL, EMPTY, WALL, PLATFORM, WALL, PLATFORM, PLATFORM, LADDER, EMPTY, PLATFORM, WALL, PLATFORM, EMPTY, WALL}, {WALL, WALL, EMPTY, PLATFORM, PLATFORM, WALL, PLATFORM, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, LADDER, WALL, PLATFORM, EMPTY, EMPTY, WALL, LADDER, LADDER, WALL, PLATFORM, PLATFORM, LADDER, LADDER, PLATFORM, PLATFORM, LADDER, WALL}, {WALL, WALL, WALL, LADDER, LADDER, PLATFORM, PLATFORM, WALL, PLATFORM, EMPTY, WALL, LADDER, WALL, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, LADDER, LADDER, WALL, LADDER, PLATFORM, LADDER, WALL, EMPTY, PLATFORM, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, LADDER, LADDER, LADDER, PLATFORM, LADDER, WALL, LADDER, LADDER, PLATFORM, EMPTY, EMPTY, WALL, EMPTY, WALL, EMPTY, PLATFORM, PLATFORM, EMPTY, LADDER, PLATFORM, LADDER, LADDER, WALL, PLATFORM, LADDER, WALL}, {WALL, PLATFORM, WALL, PLATFORM, PLATFORM, WALL, WALL, LADDER, WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, WALL, PLATFORM, EMPTY, LADDER, EMPTY, PLATFORM, PLATFORM, WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, LADDER, WALL, EMPTY, WALL}, {WALL, EMPTY, WALL, PLATFORM, PLATFORM, EMPTY, WALL, EMPTY, PLATFORM, WALL, WALL, PLATFORM, EMPTY, LADDER, WALL, LADDER, PLATFORM, LADDER, EMPTY, EMPTY, PLATFORM, WALL, LADDER, LADDER, PLATFORM, EMPTY, WALL, LADDER, PLATFORM, WALL}, {WALL, PLATFORM, LADDER, WALL, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, PLATFORM, EMPTY, LADDER, WALL, EMPTY, WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, WALL, LADDER, WALL, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, WALL}, {WALL, EMPTY, WALL, PLATFORM, PLATFORM, WALL, WALL, EMPTY, EMPTY, WALL, EMPTY, WALL, PLATFORM, WALL, PLATFORM, PLATFORM, WALL, PLATFORM, LADDER, WALL, PLATFORM, EMPTY, WALL, EMPTY, LADDER, WALL, PLATFORM, WALL, PLATFORM, WALL}, {WALL, PLATFORM, LADDER, WALL, PLATFORM, PLATFORM, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, EMPTY, WALL, LADDER, LADDER, PLATFORM, WALL, WALL, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, LADDER, PLATFORM, WALL}, {WALL, WALL, PLATFORM, PLATFORM, PLATFORM, WALL, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, WALL, LADDER, WALL, LADDER, WALL, EMPTY, EMPTY, LADDER, LADDER, EMPTY, WALL, EMPTY, LADDER, PLATFORM, PLATFORM, PLATFORM, WALL, WALL}, {WALL, PLATFORM, WALL, EMPTY, WALL, EMPTY, EMPTY, PLATFORM, WALL, LADDER, EMPTY, WALL, LADDER, LADDER, PLATFORM, WALL, PLATFORM, PLATFORM, LADDER, EMPTY, PLATFORM, WALL, PLATFORM, LADDER, EMPTY, EMPTY, LADDER, WALL, LADDER, WALL}, {WALL, PLATFORM, WALL, LADDER, PLATFORM, LADDER, LADDER, WALL, PLATFORM, LADDER, EMPTY, LADDER, PLATFORM, LADDER, WALL, LADDER, LADDER, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, LADDER, EMPTY, WALL}, {WALL, PLATFORM, LADDER, EMPTY, PLATFORM, WALL, PLATFORM, WALL, EMPTY, WALL, EMPTY, PLATFORM, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, EMPTY, PLATFORM, LADDER, EMPTY, EMPTY, LADDER, WALL, PLATFORM, PLATFORM, EMPTY, PLATFORM, EMPTY, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, WALL, PLATFORM, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, PLATFORM, PLATFORM, EMPTY, WALL, EMPTY, EMPTY, WALL, PLATFORM, PLATFORM, WALL}, {WALL, EMPTY, PLATFORM, PLATFORM, WALL, LADDER, PLATFORM, EMPTY, EMPTY, PLATFORM, WALL, LADDER, WALL, WALL, PLATFORM, EMPTY, LADDER, PLATFORM, WALL, PLATFORM, WALL, PLATFORM, EMPTY, LADDER, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, PLATFORM, WALL, WALL, WALL, PLATFORM, PLATFORM, PLATFORM, WALL, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, PLATFORM, WALL, WALL, PLATFORM, PLATFORM, LADDER, LADDER, LADDER, WALL}, {WALL, LADDER, EMPTY, EMPTY, LADDER, PLATFORM, LADDER, PLATFORM, EMPTY, WALL, LADDER, PLATFORM, WALL, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, PLATFORM, WALL, EMPTY, PLATFORM, PLATFORM, WALL}, {WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}};
-        Utils.printMap(map, start.position);
-        Simulator simulator = new Simulator(map,(int)6000.0,1);
         List<UnitState> expected = Arrays.asList(
                 new UnitState(new Point(15.498355816299325, 14.998333333333333), 0.0, false, false),
                 new UnitState(new Point(15.49671163259865, 14.996666666666666), 0.0, false, false),
@@ -2988,65 +2998,67 @@ public class StressTest {
                 new UnitState(new Point(15.542250019563138, 13.056666667666674), 0.544333333333334, true, true)
         );
         Plan plan = new Plan()
-                .add(22,new MoveAction(-9.865102204044064,false,true))
-                .add(36,new MoveAction(0.9846648796819384,true,false))
-                .add(37,new MoveAction(2.0066238917604107,false,true))
-                .add(30,new MoveAction(-7.271701049529562,false,false))
-                .add(31,new MoveAction(6.098093584817686,false,true))
-                .add(31,new MoveAction(6.921825972678725,false,false))
-                .add(22,new MoveAction(-4.632885928098169,false,false))
-                .add(27,new MoveAction(-5.2041078334499,false,false))
-                .add(33,new MoveAction(-9.94539493008225,true,false))
-                .add(29,new MoveAction(-0.03078092110008157,true,false))
-                .add(37,new MoveAction(6.568176077876696,true,false))
-                .add(23,new MoveAction(-4.536438783463391,true,false))
-                .add(29,new MoveAction(5.39412113991219,false,true))
-                .add(21,new MoveAction(-9.728932308965568,true,false))
-                .add(39,new MoveAction(-9.171030056581873,false,false))
-                .add(22,new MoveAction(3.3921391460705923,true,false))
-                .add(32,new MoveAction(-4.893119400295694,false,true))
-                .add(25,new MoveAction(-5.390478369188467,true,false))
-                .add(27,new MoveAction(7.409334363903419,false,true))
-                .add(21,new MoveAction(-9.262952410670817,false,true))
-                .add(33,new MoveAction(4.278732079257807,true,false))
-                .add(21,new MoveAction(-6.320923052665659,false,true))
-                .add(30,new MoveAction(2.117660055333735,true,false))
-                .add(24,new MoveAction(2.359359951648507,false,false))
-                .add(35,new MoveAction(4.740736362021963,true,false))
-                .add(38,new MoveAction(4.425689675035283,true,false))
-                .add(29,new MoveAction(-0.6438759361785014,true,false))
-                .add(32,new MoveAction(-4.390625615726174,true,false))
-                .add(23,new MoveAction(2.8889318221093454,false,false))
-                .add(24,new MoveAction(4.716214142798496,false,true))
-                .add(24,new MoveAction(-2.781103188717669,false,true))
-                .add(22,new MoveAction(0.44832221364052316,false,true))
-                .add(37,new MoveAction(-3.310107325430643,true,false))
-                .add(39,new MoveAction(-7.396212340396557,false,false))
-                .add(28,new MoveAction(4.158956983345611,false,true))
-                .add(21,new MoveAction(-5.326165120114046,true,false))
-                .add(39,new MoveAction(-7.112295844834822,false,false))
-                .add(28,new MoveAction(7.454786754805109,false,true))
-                .add(37,new MoveAction(0.7391300684940116,false,true))
-                .add(27,new MoveAction(-5.985202419807337,false,true))
-                .add(23,new MoveAction(0.4279764363819538,false,true))
-                .add(20,new MoveAction(5.202982013811422,false,true))
-                .add(39,new MoveAction(-5.01701360049587,false,false))
-                .add(35,new MoveAction(1.8612104364888573,false,true))
-                .add(33,new MoveAction(1.1145257174105936,true,false))
-                .add(27,new MoveAction(4.996513856052671,false,false))
-                .add(32,new MoveAction(4.8412125690476415,false,false))
-                .add(27,new MoveAction(8.39468493607179,true,false))
-                .add(25,new MoveAction(3.5143468280323376,false,false))
-                .add(34,new MoveAction(9.503317935131289,true,false));
-        List<UnitState> actual = simulator.simulate(start, plan);
-        assertEquals(actual, expected);
+                .add(22,MoveAction.of(-9.865102204044064,false,true))
+                .add(36,MoveAction.of(0.9846648796819384,true,false))
+                .add(37,MoveAction.of(2.0066238917604107,false,true))
+                .add(30,MoveAction.of(-7.271701049529562,false,false))
+                .add(31,MoveAction.of(6.098093584817686,false,true))
+                .add(31,MoveAction.of(6.921825972678725,false,false))
+                .add(22,MoveAction.of(-4.632885928098169,false,false))
+                .add(27,MoveAction.of(-5.2041078334499,false,false))
+                .add(33,MoveAction.of(-9.94539493008225,true,false))
+                .add(29,MoveAction.of(-0.03078092110008157,true,false))
+                .add(37,MoveAction.of(6.568176077876696,true,false))
+                .add(23,MoveAction.of(-4.536438783463391,true,false))
+                .add(29,MoveAction.of(5.39412113991219,false,true))
+                .add(21,MoveAction.of(-9.728932308965568,true,false))
+                .add(39,MoveAction.of(-9.171030056581873,false,false))
+                .add(22,MoveAction.of(3.3921391460705923,true,false))
+                .add(32,MoveAction.of(-4.893119400295694,false,true))
+                .add(25,MoveAction.of(-5.390478369188467,true,false))
+                .add(27,MoveAction.of(7.409334363903419,false,true))
+                .add(21,MoveAction.of(-9.262952410670817,false,true))
+                .add(33,MoveAction.of(4.278732079257807,true,false))
+                .add(21,MoveAction.of(-6.320923052665659,false,true))
+                .add(30,MoveAction.of(2.117660055333735,true,false))
+                .add(24,MoveAction.of(2.359359951648507,false,false))
+                .add(35,MoveAction.of(4.740736362021963,true,false))
+                .add(38,MoveAction.of(4.425689675035283,true,false))
+                .add(29,MoveAction.of(-0.6438759361785014,true,false))
+                .add(32,MoveAction.of(-4.390625615726174,true,false))
+                .add(23,MoveAction.of(2.8889318221093454,false,false))
+                .add(24,MoveAction.of(4.716214142798496,false,true))
+                .add(24,MoveAction.of(-2.781103188717669,false,true))
+                .add(22,MoveAction.of(0.44832221364052316,false,true))
+                .add(37,MoveAction.of(-3.310107325430643,true,false))
+                .add(39,MoveAction.of(-7.396212340396557,false,false))
+                .add(28,MoveAction.of(4.158956983345611,false,true))
+                .add(21,MoveAction.of(-5.326165120114046,true,false))
+                .add(39,MoveAction.of(-7.112295844834822,false,false))
+                .add(28,MoveAction.of(7.454786754805109,false,true))
+                .add(37,MoveAction.of(0.7391300684940116,false,true))
+                .add(27,MoveAction.of(-5.985202419807337,false,true))
+                .add(23,MoveAction.of(0.4279764363819538,false,true))
+                .add(20,MoveAction.of(5.202982013811422,false,true))
+                .add(39,MoveAction.of(-5.01701360049587,false,false))
+                .add(35,MoveAction.of(1.8612104364888573,false,true))
+                .add(33,MoveAction.of(1.1145257174105936,true,false))
+                .add(27,MoveAction.of(4.996513856052671,false,false))
+                .add(32,MoveAction.of(4.8412125690476415,false,false))
+                .add(27,MoveAction.of(8.39468493607179,true,false))
+                .add(25,MoveAction.of(3.5143468280323376,false,false))
+                .add(34,MoveAction.of(9.503317935131289,true,false));
+        return new Scenario(start, map, 6000, 1, plan, expected);
     }
 
     @Test
     void test5() {
+        scenario5().check();
+    }
+
+    static Scenario scenario5() {
         UnitState start = new UnitState(new Point(15.5, 15.0), 0.0, false, false);
         Tile[][] map = new Tile[][]{{WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}, {WALL, LADDER, PLATFORM, EMPTY, WALL, EMPTY, PLATFORM, EMPTY, PLATFORM, EMPTY, LADDER, EMPTY, LADDER, PLATFORM, PLATFORM, EMPTY, PLATFORM, EMPTY, PLATFORM, LADDER, EMPTY, JUMP_PAD, PLATFORM, WALL, LADDER, EMPTY, LADDER, PLATFORM, LADDER, WALL}, {WALL, LADDER, EMPTY, LADDER, PLATFORM, EMPTY, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, LADDER, EMPTY, JUMP_PAD, EMPTY, PLATFORM, PLATFORM, EMPTY, LADDER, LADDER, EMPTY, LADDER, PLATFORM, EMPTY, EMPTY, PLATFORM, WALL, EMPTY, WALL}, {WALL, PLATFORM, EMPTY, PLATFORM, JUMP_PAD, PLATFORM, EMPTY, WALL, LADDER, EMPTY, EMPTY, JUMP_PAD, LADDER, PLATFORM, PLATFORM, EMPTY, EMPTY, LADDER, EMPTY, PLATFORM, PLATFORM, WALL, WALL, PLATFORM, PLATFORM, LADDER, LADDER, EMPTY, JUMP_PAD, WALL}, {WALL, EMPTY, JUMP_PAD, LADDER, PLATFORM, EMPTY, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, LADDER, WALL, PLATFORM, EMPTY, LADDER, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, PLATFORM, EMPTY, EMPTY, WALL}, {WALL, LADDER, PLATFORM, LADDER, PLATFORM, LADDER, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, JUMP_PAD, LADDER, JUMP_PAD, EMPTY, EMPTY, WALL, EMPTY, WALL, EMPTY, PLATFORM, EMPTY, LADDER, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, WALL}, {WALL, JUMP_PAD, EMPTY, PLATFORM, PLATFORM, EMPTY, EMPTY, LADDER, LADDER, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, LADDER, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, WALL}, {WALL, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, EMPTY, PLATFORM, EMPTY, WALL, JUMP_PAD, PLATFORM, EMPTY, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, LADDER, WALL, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, JUMP_PAD, PLATFORM, PLATFORM, WALL}, {WALL, WALL, WALL, JUMP_PAD, LADDER, WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, PLATFORM, LADDER, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, EMPTY, LADDER, JUMP_PAD, EMPTY, EMPTY, PLATFORM, LADDER, EMPTY, WALL}, {WALL, JUMP_PAD, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, WALL, PLATFORM, LADDER, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, PLATFORM, EMPTY, JUMP_PAD, EMPTY, PLATFORM, WALL, EMPTY, EMPTY, LADDER, WALL, WALL}, {WALL, EMPTY, EMPTY, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, JUMP_PAD, PLATFORM, EMPTY, EMPTY, PLATFORM, WALL, WALL, EMPTY, PLATFORM, WALL, EMPTY, LADDER, EMPTY, WALL}, {WALL, EMPTY, LADDER, PLATFORM, JUMP_PAD, EMPTY, PLATFORM, PLATFORM, PLATFORM, LADDER, PLATFORM, PLATFORM, WALL, LADDER, WALL, EMPTY, PLATFORM, EMPTY, PLATFORM, LADDER, EMPTY, EMPTY, WALL, EMPTY, PLATFORM, EMPTY, JUMP_PAD, PLATFORM, WALL, WALL}, {WALL, WALL, PLATFORM, JUMP_PAD, LADDER, EMPTY, EMPTY, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, LADDER, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, LADDER, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, WALL, WALL}, {WALL, EMPTY, EMPTY, EMPTY, LADDER, EMPTY, LADDER, EMPTY, LADDER, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, EMPTY, LADDER, PLATFORM, LADDER, LADDER, EMPTY, EMPTY, EMPTY, WALL, WALL}, {WALL, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, JUMP_PAD, PLATFORM, WALL, EMPTY, PLATFORM, PLATFORM, EMPTY, EMPTY, WALL}, {WALL, PLATFORM, EMPTY, EMPTY, PLATFORM, WALL, PLATFORM, PLATFORM, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, EMPTY, LADDER, LADDER, WALL, WALL}, {WALL, EMPTY, WALL, JUMP_PAD, PLATFORM, EMPTY, EMPTY, PLATFORM, LADDER, PLATFORM, EMPTY, WALL, EMPTY, EMPTY, PLATFORM, EMPTY, PLATFORM, LADDER, WALL, EMPTY, JUMP_PAD, LADDER, EMPTY, PLATFORM, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, WALL}, {WALL, EMPTY, LADDER, LADDER, JUMP_PAD, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, JUMP_PAD, PLATFORM, EMPTY, JUMP_PAD, EMPTY, EMPTY, PLATFORM, LADDER, PLATFORM, WALL}, {WALL, LADDER, PLATFORM, EMPTY, WALL, LADDER, EMPTY, JUMP_PAD, WALL, EMPTY, PLATFORM, EMPTY, LADDER, PLATFORM, EMPTY, PLATFORM, LADDER, WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, WALL}, {WALL, EMPTY, PLATFORM, LADDER, EMPTY, PLATFORM, LADDER, LADDER, PLATFORM, LADDER, LADDER, PLATFORM, EMPTY, EMPTY, LADDER, LADDER, JUMP_PAD, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, EMPTY, EMPTY, EMPTY, PLATFORM, PLATFORM, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, WALL, LADDER, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, LADDER, PLATFORM, WALL, EMPTY, LADDER, PLATFORM, WALL, LADDER, PLATFORM, EMPTY, PLATFORM, PLATFORM, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, WALL, JUMP_PAD, PLATFORM, PLATFORM, WALL, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, EMPTY, LADDER, PLATFORM, LADDER, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, JUMP_PAD, WALL}, {WALL, WALL, EMPTY, EMPTY, WALL, JUMP_PAD, WALL, EMPTY, EMPTY, EMPTY, PLATFORM, WALL, EMPTY, LADDER, LADDER, JUMP_PAD, EMPTY, PLATFORM, LADDER, EMPTY, LADDER, LADDER, JUMP_PAD, PLATFORM, WALL, WALL, EMPTY, EMPTY, PLATFORM, WALL}, {WALL, EMPTY, LADDER, PLATFORM, EMPTY, EMPTY, LADDER, EMPTY, LADDER, LADDER, EMPTY, LADDER, PLATFORM, EMPTY, EMPTY, LADDER, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, WALL}, {WALL, PLATFORM, WALL, PLATFORM, JUMP_PAD, LADDER, PLATFORM, JUMP_PAD, EMPTY, EMPTY, LADDER, LADDER, PLATFORM, EMPTY, EMPTY, PLATFORM, WALL, PLATFORM, PLATFORM, PLATFORM, PLATFORM, LADDER, LADDER, EMPTY, PLATFORM, LADDER, EMPTY, EMPTY, PLATFORM, WALL}, {WALL, EMPTY, EMPTY, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, EMPTY, LADDER, PLATFORM, LADDER, WALL, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, LADDER, PLATFORM, WALL, PLATFORM, EMPTY, PLATFORM, EMPTY, PLATFORM, WALL}, {WALL, WALL, PLATFORM, PLATFORM, LADDER, EMPTY, LADDER, WALL, WALL, PLATFORM, LADDER, PLATFORM, LADDER, EMPTY, PLATFORM, EMPTY, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, LADDER, LADDER, PLATFORM, LADDER, EMPTY, WALL}, {WALL, EMPTY, PLATFORM, PLATFORM, EMPTY, WALL, EMPTY, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, PLATFORM, EMPTY, JUMP_PAD, LADDER, JUMP_PAD, PLATFORM, PLATFORM, PLATFORM, LADDER, EMPTY, EMPTY, EMPTY, EMPTY, WALL, LADDER, PLATFORM, EMPTY, WALL}, {WALL, EMPTY, EMPTY, EMPTY, EMPTY, PLATFORM, JUMP_PAD, LADDER, LADDER, EMPTY, LADDER, PLATFORM, EMPTY, LADDER, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, PLATFORM, LADDER, LADDER, EMPTY, PLATFORM, EMPTY, EMPTY, WALL}, {WALL, PLATFORM, LADDER, EMPTY, PLATFORM, JUMP_PAD, JUMP_PAD, EMPTY, EMPTY, EMPTY, PLATFORM, PLATFORM, LADDER, EMPTY, EMPTY, LADDER, LADDER, PLATFORM, EMPTY, PLATFORM, LADDER, EMPTY, JUMP_PAD, EMPTY, LADDER, EMPTY, EMPTY, LADDER, EMPTY, WALL}, {WALL, PLATFORM, JUMP_PAD, PLATFORM, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, LADDER, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, WALL, LADDER, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, EMPTY, JUMP_PAD, WALL}, {WALL, LADDER, LADDER, PLATFORM, PLATFORM, JUMP_PAD, PLATFORM, JUMP_PAD, JUMP_PAD, JUMP_PAD, EMPTY, LADDER, EMPTY, LADDER, LADDER, LADDER, PLATFORM, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, PLATFORM, PLATFORM, LADDER, EMPTY, LADDER, PLATFORM, PLATFORM, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, WALL, LADDER, PLATFORM, PLATFORM, LADDER, PLATFORM, PLATFORM, PLATFORM, EMPTY, WALL, PLATFORM, PLATFORM, PLATFORM, LADDER, WALL, WALL, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, LADDER, PLATFORM, WALL}, {WALL, JUMP_PAD, EMPTY, PLATFORM, EMPTY, EMPTY, EMPTY, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, PLATFORM, PLATFORM, PLATFORM, PLATFORM, JUMP_PAD, EMPTY, PLATFORM, LADDER, PLATFORM, LADDER, WALL}, {WALL, EMPTY, LADDER, LADDER, PLATFORM, PLATFORM, PLATFORM, LADDER, JUMP_PAD, PLATFORM, PLATFORM, EMPTY, EMPTY, LADDER, JUMP_PAD, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, PLATFORM, PLATFORM, JUMP_PAD, LADDER, WALL, LADDER, JUMP_PAD, EMPTY, WALL}, {WALL, PLATFORM, JUMP_PAD, EMPTY, EMPTY, JUMP_PAD, PLATFORM, EMPTY, EMPTY, PLATFORM, EMPTY, EMPTY, LADDER, JUMP_PAD, LADDER, PLATFORM, LADDER, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, PLATFORM, PLATFORM, EMPTY, LADDER, EMPTY, EMPTY, EMPTY, WALL}, {WALL, JUMP_PAD, PLATFORM, PLATFORM, EMPTY, PLATFORM, LADDER, PLATFORM, EMPTY, PLATFORM, EMPTY, EMPTY, EMPTY, LADDER, LADDER, PLATFORM, LADDER, EMPTY, LADDER, PLATFORM, LADDER, EMPTY, PLATFORM, EMPTY, LADDER, LADDER, PLATFORM, EMPTY, EMPTY, WALL}, {WALL, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, EMPTY, LADDER, WALL, PLATFORM, WALL, PLATFORM, LADDER, EMPTY, JUMP_PAD, WALL, JUMP_PAD, JUMP_PAD, LADDER, WALL, LADDER, EMPTY, EMPTY, LADDER, JUMP_PAD, PLATFORM, JUMP_PAD, EMPTY, PLATFORM, WALL}, {WALL, EMPTY, LADDER, PLATFORM, PLATFORM, LADDER, JUMP_PAD, LADDER, LADDER, PLATFORM, JUMP_PAD, LADDER, EMPTY, PLATFORM, LADDER, PLATFORM, PLATFORM, PLATFORM, EMPTY, EMPTY, EMPTY, PLATFORM, PLATFORM, PLATFORM, EMPTY, LADDER, EMPTY, PLATFORM, EMPTY, WALL}, {WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL, WALL}};
-        Simulator simulator = new Simulator(map,(int)60.0,100);
         List<UnitState> expected = Arrays.asList(
                 new UnitState(new Point(15.419929980990041, 15.0), 0.55, true, true),
                 new UnitState(new Point(15.339859961980082, 15.0), 0.55, true, true),
@@ -4566,58 +4578,93 @@ public class StressTest {
                 new UnitState(new Point(4.881117637156827, 20.378333332340176), 0.55, true, true)
         );
         Plan plan = new Plan()
-                .add(28,new MoveAction(-4.804201140595166,false,false))
-                .add(30,new MoveAction(-3.6570750301381043,true,false))
-                .add(37,new MoveAction(-8.147124289311535,false,true))
-                .add(27,new MoveAction(-0.8823866792577277,false,false))
-                .add(30,new MoveAction(-2.093183095484985,false,false))
-                .add(34,new MoveAction(-0.3944456369353606,false,false))
-                .add(38,new MoveAction(-9.380741643758814,false,false))
-                .add(29,new MoveAction(-3.959760289588199,true,false))
-                .add(34,new MoveAction(7.640322563895591,true,false))
-                .add(33,new MoveAction(4.71501414376101,false,true))
-                .add(21,new MoveAction(-0.4589104537781381,false,false))
-                .add(30,new MoveAction(5.0692292741639235,false,false))
-                .add(36,new MoveAction(-8.633452537783732,false,true))
-                .add(26,new MoveAction(-8.776839167955504,false,false))
-                .add(38,new MoveAction(2.77750875557944,false,false))
-                .add(22,new MoveAction(-1.9053732585783045,true,false))
-                .add(36,new MoveAction(-1.989876648061582,false,true))
-                .add(35,new MoveAction(-6.547105362090009,false,false))
-                .add(29,new MoveAction(6.666788258669115,false,true))
-                .add(33,new MoveAction(8.613124885168201,true,false))
-                .add(34,new MoveAction(-5.737598250543909,false,false))
-                .add(35,new MoveAction(-0.0527409683964013,true,false))
-                .add(23,new MoveAction(7.4850651923167675,false,false))
-                .add(25,new MoveAction(-9.015097860892425,false,true))
-                .add(24,new MoveAction(-6.709496346751644,false,false))
-                .add(36,new MoveAction(0.6004272656043383,false,false))
-                .add(24,new MoveAction(-6.765385535439796,true,false))
-                .add(25,new MoveAction(-3.369838111755687,false,false))
-                .add(33,new MoveAction(4.858724168255893,false,false))
-                .add(26,new MoveAction(6.236196369740281,false,true))
-                .add(29,new MoveAction(0.4772873705329914,false,false))
-                .add(34,new MoveAction(4.430989521288032,true,false))
-                .add(31,new MoveAction(0.3779097826430444,false,true))
-                .add(29,new MoveAction(-9.60038273792537,true,false))
-                .add(31,new MoveAction(-7.771257956444644,false,true))
-                .add(21,new MoveAction(7.604160991166776,false,true))
-                .add(25,new MoveAction(-8.60155391483149,false,true))
-                .add(21,new MoveAction(8.127385222354494,true,false))
-                .add(22,new MoveAction(7.929088367723715,true,false))
-                .add(38,new MoveAction(4.310520313160488,true,false))
-                .add(36,new MoveAction(5.0624711361285275,false,true))
-                .add(36,new MoveAction(-8.537388228934335,false,true))
-                .add(26,new MoveAction(1.5055760132607183,false,true))
-                .add(37,new MoveAction(4.266556617693968,true,false))
-                .add(25,new MoveAction(5.030939912131869,true,false))
-                .add(38,new MoveAction(6.479611588617754,false,true))
-                .add(29,new MoveAction(8.542946879812913,false,true))
-                .add(36,new MoveAction(8.623801018521497,false,false))
-                .add(37,new MoveAction(-8.598827229947636,false,true))
-                .add(24,new MoveAction(1.5843194082268504,false,true));
-        List<UnitState> actual = simulator.simulate(start, plan);
-        assertEquals(actual, expected);
+                .add(28,MoveAction.of(-4.804201140595166,false,false))
+                .add(30,MoveAction.of(-3.6570750301381043,true,false))
+                .add(37,MoveAction.of(-8.147124289311535,false,true))
+                .add(27,MoveAction.of(-0.8823866792577277,false,false))
+                .add(30,MoveAction.of(-2.093183095484985,false,false))
+                .add(34,MoveAction.of(-0.3944456369353606,false,false))
+                .add(38,MoveAction.of(-9.380741643758814,false,false))
+                .add(29,MoveAction.of(-3.959760289588199,true,false))
+                .add(34,MoveAction.of(7.640322563895591,true,false))
+                .add(33,MoveAction.of(4.71501414376101,false,true))
+                .add(21,MoveAction.of(-0.4589104537781381,false,false))
+                .add(30,MoveAction.of(5.0692292741639235,false,false))
+                .add(36,MoveAction.of(-8.633452537783732,false,true))
+                .add(26,MoveAction.of(-8.776839167955504,false,false))
+                .add(38,MoveAction.of(2.77750875557944,false,false))
+                .add(22,MoveAction.of(-1.9053732585783045,true,false))
+                .add(36,MoveAction.of(-1.989876648061582,false,true))
+                .add(35,MoveAction.of(-6.547105362090009,false,false))
+                .add(29,MoveAction.of(6.666788258669115,false,true))
+                .add(33,MoveAction.of(8.613124885168201,true,false))
+                .add(34,MoveAction.of(-5.737598250543909,false,false))
+                .add(35,MoveAction.of(-0.0527409683964013,true,false))
+                .add(23,MoveAction.of(7.4850651923167675,false,false))
+                .add(25,MoveAction.of(-9.015097860892425,false,true))
+                .add(24,MoveAction.of(-6.709496346751644,false,false))
+                .add(36,MoveAction.of(0.6004272656043383,false,false))
+                .add(24,MoveAction.of(-6.765385535439796,true,false))
+                .add(25,MoveAction.of(-3.369838111755687,false,false))
+                .add(33,MoveAction.of(4.858724168255893,false,false))
+                .add(26,MoveAction.of(6.236196369740281,false,true))
+                .add(29,MoveAction.of(0.4772873705329914,false,false))
+                .add(34,MoveAction.of(4.430989521288032,true,false))
+                .add(31,MoveAction.of(0.3779097826430444,false,true))
+                .add(29,MoveAction.of(-9.60038273792537,true,false))
+                .add(31,MoveAction.of(-7.771257956444644,false,true))
+                .add(21,MoveAction.of(7.604160991166776,false,true))
+                .add(25,MoveAction.of(-8.60155391483149,false,true))
+                .add(21,MoveAction.of(8.127385222354494,true,false))
+                .add(22,MoveAction.of(7.929088367723715,true,false))
+                .add(38,MoveAction.of(4.310520313160488,true,false))
+                .add(36,MoveAction.of(5.0624711361285275,false,true))
+                .add(36,MoveAction.of(-8.537388228934335,false,true))
+                .add(26,MoveAction.of(1.5055760132607183,false,true))
+                .add(37,MoveAction.of(4.266556617693968,true,false))
+                .add(25,MoveAction.of(5.030939912131869,true,false))
+                .add(38,MoveAction.of(6.479611588617754,false,true))
+                .add(29,MoveAction.of(8.542946879812913,false,true))
+                .add(36,MoveAction.of(8.623801018521497,false,false))
+                .add(37,MoveAction.of(-8.598827229947636,false,true))
+                .add(24,MoveAction.of(1.5843194082268504,false,true));
+        return new Scenario(start, map, 60, 100, plan, expected);
     }
 
+    @Test
+    void eventDriven() {
+        for (Scenario scenario : scenarios()) {
+            Simulator simulator = new Simulator(scenario.map, scenario.ticksPerSecond, scenario.microticksPerTick);
+            TrajectoryBuffer states = simulator.simulateEvents(scenario.start, scenario.plan, new TrajectoryBuffer(0));
+            assertEquals(states.toStates(), scenario.expected);
+        }
+    }
+
+    public static List<Scenario> scenarios() {
+        return Arrays.asList(scenario1(), scenario2(), scenario3(), scenario4(), scenario5());
+    }
+
+    public static class Scenario {
+        public final UnitState start;
+        public final Tile[][] map;
+        public final int ticksPerSecond;
+        public final int microticksPerTick;
+        public final Plan plan;
+        public final List<UnitState> expected;
+
+        Scenario(UnitState start, Tile[][] map, int ticksPerSecond, int microticksPerTick, Plan plan, List<UnitState> expected) {
+            this.start = start;
+            this.map = map;
+            this.ticksPerSecond = ticksPerSecond;
+            this.microticksPerTick = microticksPerTick;
+            this.plan = plan;
+            this.expected = expected;
+        }
+
+        void check() {
+            Simulator simulator = new Simulator(map, ticksPerSecond, microticksPerTick);
+            List<UnitState> actual = simulator.simulate(start, plan);
+            assertEquals(actual, expected);
+        }
+    }
 }
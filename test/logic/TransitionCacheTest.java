@@ -0,0 +1,35 @@
+package logic;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TransitionCacheTest {
+
+    @Test
+    void cachedStatesAreTheSame() {
+        for (StressTest.Scenario scenario : StressTest.scenarios()) {
+            TransitionCache cache = new TransitionCache(1 << 16);
+            Simulator simulator = new Simulator(
+                    new CollisionMap(scenario.map), scenario.ticksPerSecond, scenario.microticksPerTick, cache
+            );
+            assertEquals(simulator.simulate(scenario.start, scenario.plan), scenario.expected);
+            long misses = cache.misses();
+            assertEquals(simulator.simulate(scenario.start, scenario.plan), scenario.expected);
+            assertEquals(cache.misses(), misses);
+            assertTrue(cache.hits() >= scenario.plan.size());
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        StressTest.Scenario scenario = StressTest.scenarios().get(0);
+        TransitionCache cache = new TransitionCache(10);
+        Simulator simulator = new Simulator(
+                new CollisionMap(scenario.map), scenario.ticksPerSecond, scenario.microticksPerTick, cache
+        );
+        simulator.simulate(scenario.start, scenario.plan);
+        assertEquals(cache.size(), 10);
+    }
+}
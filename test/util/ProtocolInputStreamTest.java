@@ -0,0 +1,105 @@
+package util;
+
+import logic.StressTest;
+import model.Level;
+import model.Tile;
+import org.testng.annotations.Test;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+public class ProtocolInputStreamTest {
+
+    @Test
+    void readsWhatStreamUtilWrites() throws IOException {
+        byte[] bytes = sample();
+        check(new ProtocolInputStream(new ByteArrayInputStream(bytes)));
+        check(new ProtocolInputStream(new TrickleInputStream(bytes)));
+        check(new ProtocolInputStream(Channels.newChannel(new TrickleInputStream(bytes))));
+    }
+
+    @Test
+    void reusesUnchangedLevel() throws IOException {
+        Tile[][] tiles = StressTest.scenarios().get(1).map;
+        Tile[][] changed = new Tile[tiles.length][];
+        for (int x = 0; x < tiles.length; x++) {
+            changed[x] = tiles[x].clone();
+        }
+        changed[3][3] = Tile.LADDER;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Level(tiles).writeTo(out);
+        StreamUtil.writeInt(out, 42);
+        new Level(tiles).writeTo(out);
+        new Level(changed).writeTo(out);
+        new Level(changed).writeTo(out);
+        InputStream in = new ProtocolInputStream(new TrickleInputStream(out.toByteArray()));
+
+        Level first = Level.readFrom(in);
+        assertEquals(first.getTiles(), tiles);
+        assertEquals(StreamUtil.readInt(in), 42);
+        assertSame(Level.readFrom(in), first);
+        Level third = Level.readFrom(in);
+        assertNotSame(third, first);
+        assertEquals(third.getTiles(), changed);
+        assertSame(Level.readFrom(in), third);
+        assertEquals(in.read(), -1);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    void unexpectedEof() throws IOException {
+        new ProtocolInputStream(new ByteArrayInputStream(new byte[3])).readInt();
+    }
+
+    private static byte[] sample() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            StreamUtil.writeInt(out, random.nextInt());
+            StreamUtil.writeDouble(out, random.nextDouble());
+            StreamUtil.writeBoolean(out, random.nextBoolean());
+            StreamUtil.writeLong(out, random.nextLong());
+            StreamUtil.writeFloat(out, random.nextFloat());
+        }
+        StreamUtil.writeString(out, "short");
+        StreamUtil.writeString(out, longString());
+        return out.toByteArray();
+    }
+
+    private static void check(InputStream in) throws IOException {
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(StreamUtil.readInt(in), random.nextInt());
+            assertEquals(StreamUtil.readDouble(in), random.nextDouble());
+            assertEquals(StreamUtil.readBoolean(in), random.nextBoolean());
+            assertEquals(StreamUtil.readLong(in), random.nextLong());
+            assertEquals(StreamUtil.readFloat(in), random.nextFloat());
+        }
+        assertEquals(StreamUtil.readString(in), "short");
+        assertEquals(StreamUtil.readString(in), longString());
+        assertEquals(in.read(), -1);
+    }
+
+    private static String longString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        return sb.toString();
+    }
+
+    // hands out at most 7 bytes per read, like a socket delivering a message in pieces
+    static class TrickleInputStream extends ByteArrayInputStream {
+        TrickleInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 7));
+        }
+    }
+}